@@ -0,0 +1,244 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import com._31536000.math.algebraic.group.Monoid;
+
+/**
+ * 遅延評価セグメント木の共通の実装です。<br>
+ * 区間の値に更新を作用させる方法は、{@link #mapping(Object, Object, int)}で与えます。
+ * @author 31536000
+ *
+ * @param <T> 範囲取得を行いたいクラス
+ * @param <E> 更新に用いるクラス
+ * @see LazySegmentTree
+ * @see MonoidLazySegmentTree
+ */
+public abstract class AbstractLazySegmentTree<T, E> implements SegmentTreeInterface<T, E>{
+	private final Monoid<T> semigroup;
+	private final Monoid<E> lazygroup;
+	private final Object dat[];
+	private final Object lazy[];
+	private final int size, log;
+
+	protected AbstractLazySegmentTree(int N, T dat, Monoid<T> semigroup, Monoid<E> lazygroup) {
+		this.semigroup = semigroup;
+		this.lazygroup = lazygroup;
+		size = N;
+		log = N <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(N - 1);
+		this.dat = new Object[2 << log]; // 要素数以上の最小の2冪*2
+		this.lazy = new Object[1 << log]; // その遅延評価に使う関数
+		Arrays.fill(this.lazy, lazygroup.identity());
+		Arrays.fill(this.dat, 1 << log, (1 << log) + N, dat); // 最下段を埋める
+		Arrays.fill(this.dat, (1 << log) + N, this.dat.length, semigroup.identity());
+		for (int i = (1 << log) - 1;i > 0; -- i) merge(i); // 最下段以外すべて、下から埋める
+	}
+
+	protected AbstractLazySegmentTree(T[] dat, Monoid<T> semigroup, Monoid<E> lazygroup) {
+		this.semigroup = semigroup;
+		this.lazygroup = lazygroup;
+		size = dat.length;
+		log = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+		this.dat = new Object[2 << log]; // 要素数以上の最小の2冪*2
+		this.lazy = new Object[1 << log]; // その遅延評価に使う関数
+		Arrays.fill(this.lazy, lazygroup.identity());
+		System.arraycopy(dat, 0, this.dat, 1 << log, dat.length); // 最下段を埋める
+		Arrays.fill(this.dat, (1 << log) + dat.length, this.dat.length, semigroup.identity());
+		for (int i = (1 << log) - 1;i > 0; -- i) merge(i); // 最下段以外すべて、下から埋める
+	}
+
+	/**
+	 * 長さlengthの区間の値datに、更新lazyを作用させた値を返します。
+	 * @param dat 区間の値
+	 * @param lazy 作用させる更新
+	 * @param length 区間の長さ
+	 * @return 更新後の値
+	 */
+	protected abstract T mapping(T dat, E lazy, int length);
+
+	@SuppressWarnings("unchecked")
+	private T dat(int index) {
+		return (T)dat[index];
+	}
+
+	private int length(int index) { // indexが表す区間の長さ
+		return 1 << log - (31 - Integer.numberOfLeadingZeros(index));
+	}
+
+	private void merge(int index) {
+		dat[index] = semigroup.apply(dat(index << 1), dat(index << 1 | 1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void lazyUpdate(E lazy, int index) {
+		dat[index] = mapping(dat(index), lazy, length(index));
+		if (index < this.lazy.length) this.lazy[index] = lazygroup.apply((E)this.lazy[index], lazy); // 既存の更新の後にlazyを行う
+	}
+
+	@SuppressWarnings("unchecked")
+	private void lazy(int index) {
+		E e = (E)lazy[index];
+		lazyUpdate(e, index << 1);
+		lazyUpdate(e, index << 1 | 1);
+		lazy[index] = lazygroup.identity();
+	}
+
+	/**
+	 * indexで指定した値に対して更新操作を行います。
+	 * @param dat 更新するデータ
+	 * @param index 更新する場所
+	 */
+	@Override
+	public void update(E dat, int index) {
+		update(dat, index, index + 1);
+	}
+
+	/**
+	 * 区間[left, right)に対して更新操作を行います。
+	 * @param dat 更新するデータ
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	@Override
+	public void update(E dat, int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		if (left == right) return;
+		left += lazy.length;
+		right += lazy.length;
+		for (int i = log;i > 0;-- i) { // 境界を見つけるまで遅延評価
+			if ((left >> i << i) != left) lazy(left >> i);
+			if ((right >> i << i) != right) lazy(right - 1 >> i);
+		}
+		for (int l = left, r = right;l < r;l >>= 1, r >>= 1) {
+			if ((l & 1) != 0) lazyUpdate(dat, l++);
+			if ((r & 1) != 0) lazyUpdate(dat, --r);
+		}
+		// これで全ての遅延評価が終わったので、次は戻していく操作
+		for (int i = 1;i <= log;++ i) {
+			if ((left >> i << i) != left) merge(left >> i);
+			if ((right >> i << i) != right) merge(right - 1 >> i);
+		}
+	}
+
+	@Override
+	public Object[] get() {
+		for (int i = 1;i < lazy.length;++ i) lazy(i);
+		Object[] ret = new Object[size];
+		System.arraycopy(dat, lazy.length, ret, 0, size);
+		return ret;
+	}
+
+	/**
+	 * 全ての値を取得します。
+	 * @param array データを格納する配列
+	 * @return 現在の値
+	 */
+	@Override
+	public T[] get(T[] array) {
+		for (int i = 1;i < lazy.length;++ i) lazy(i);
+		if (array.length < size) {
+			@SuppressWarnings("unchecked")
+			T[] ret  = (T[])Arrays.copyOfRange(dat, lazy.length, lazy.length + size, array.getClass());
+			return ret;
+		}
+		System.arraycopy(dat, lazy.length, array, 0, size);
+		return array;
+	}
+
+	@Override
+	public T get(int index) {
+		return get(index, index + 1);
+	}
+
+	@Override
+	public T get(int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		if (left == right) return semigroup.identity();
+		left += lazy.length;
+		right += lazy.length;
+		for (int i = log;i > 0;-- i) { // 境界を見つけるまで遅延評価
+			if ((left >> i << i) != left) lazy(left >> i);
+			if ((right >> i << i) != right) lazy(right - 1 >> i);
+		}
+		T L = semigroup.identity(), R = semigroup.identity();
+		for (;left < right;left >>= 1, right >>= 1) {
+			if ((left & 1) != 0) L = semigroup.apply(L, dat(left++));
+			if ((right & 1) != 0) R = semigroup.apply(dat(--right), R);
+		}
+		return semigroup.apply(L, R);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	@Override
+	public int binarySearch(int left, int right, Predicate<T> f) {
+		if (left < 0 || left > size || right < 0 || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		if (left <= right) return Math.min(maxRight(left, f), right) - 1;
+		return Math.max(minLeft(left, f), right);
+	}
+
+	private int maxRight(int left, Predicate<T> f) { // fold[left, pos)がfを満たす最大のpos
+		if (left == size) return size;
+		left += lazy.length;
+		for (int i = log;i > 0;-- i) lazy(left >> i); // 根からleftまでを遅延評価
+		T sum = semigroup.identity(), next;
+		do {
+			while ((left & 1) == 0) left >>= 1;
+			if (!f.test(next = semigroup.apply(sum, dat(left)))) {
+				while (left < lazy.length) { // 今度は降下しながら見ていく
+					lazy(left);
+					left <<= 1;
+					if (f.test(next = semigroup.apply(sum, dat(left)))) {
+						sum = next;
+						++ left;
+					}
+				}
+				return left - lazy.length;
+			}
+			sum = next;
+			++ left;
+		} while ((left & -left) != left);
+		return size;
+	}
+
+	private int minLeft(int right, Predicate<T> f) { // fold[pos, right)がfを満たす最小のpos
+		if (right == 0) return 0;
+		right += lazy.length;
+		for (int i = log;i > 0;-- i) lazy(right - 1 >> i); // 根からright-1までを遅延評価
+		T sum = semigroup.identity(), next;
+		do {
+			-- right;
+			while (right > 1 && (right & 1) != 0) right >>= 1;
+			if (!f.test(next = semigroup.apply(dat(right), sum))) {
+				while (right < lazy.length) { // 今度は降下しながら見ていく
+					lazy(right);
+					right = right << 1 | 1;
+					if (f.test(next = semigroup.apply(dat(right), sum))) {
+						sum = next;
+						-- right;
+					}
+				}
+				return right + 1 - lazy.length;
+			}
+			sum = next;
+		} while ((right & -right) != right);
+		return 0;
+	}
+
+	@Override
+	public T getAvoid(int left, int right) {
+		return semigroup.apply(get(0, left), get(right, size));
+	}
+}
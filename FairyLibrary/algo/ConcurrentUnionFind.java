@@ -0,0 +1,208 @@
+package com._31536000.algo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * 複数のスレッドから同時に操作できる素集合データ構造です。<br>
+ * 親の配列をCAS操作で更新するため、ロックを取らずに連結や判定を行うことができます。<br>
+ * 連結する際は頂点番号から計算される優先度の低い根を高い根の下に繋ぐため、閉路は生じず、木の高さは期待O(logN)です。<br>
+ * 連結成分の大きさは連結の直後に加算されるため、他のスレッドが連結を行っている間は一時的に古い値を返すことがあります。
+ * @author 31536000
+ */
+public class ConcurrentUnionFind {
+	private final AtomicIntegerArray parent; // 負ならばデータ数、正ならば親のindex
+	private final AtomicInteger size;
+	private static final int THRESHOLD = 1 << 14; // 並列化する際の、1個のタスクが担当する最小の個数
+	private static final int BLOCK = 1 << 10; // uniteAllで、1個のタスクが担当する辺の本数
+
+	private static final class ParallelFor extends RecursiveAction {
+		private static final long serialVersionUID = 7313370934372620873L;
+		private final int from, to, grain;
+		private final IntConsumer action;
+
+		private ParallelFor(int from, int to, int grain, IntConsumer action) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				for (int i = from;i < to;++ i) action.accept(i);
+				return;
+			}
+			int mid = from + to >>> 1;
+			invokeAll(new ParallelFor(from, mid, grain, action), new ParallelFor(mid, to, grain, action));
+		}
+	}
+
+	private static void parallelFor(int from, int to, IntConsumer action) {
+		parallelFor(from, to, THRESHOLD, action);
+	}
+
+	private static void parallelFor(int from, int to, int grain, IntConsumer action) { // grain個以下になるまで分割する
+		ForkJoinPool.commonPool().invoke(new ParallelFor(from, to, grain, action));
+	}
+
+	/**
+	 * size個の頂点を持つ森を作ります。
+	 * @param size 頂点数
+	 */
+	public ConcurrentUnionFind(int size) {
+		this.size = new AtomicInteger(size);
+		this.parent = new AtomicIntegerArray(size);
+		if (size < THRESHOLD) for (int i = 0;i < size;++ i) parent.set(i, -1);
+		else parallelFor(0, size, i -> parent.set(i, -1));
+	}
+
+	private static int priority(int n) { // 頂点番号の全単射なハッシュ
+		n *= 0x9E3779B9;
+		return n ^ n >>> 16;
+	}
+
+	/**
+	 * その頂点がどの頂点を根とする連結成分に属しているかを求めます。<br>
+	 * 他のスレッドの操作を待つことはありません。計算量は期待O(logN)です。
+	 * @param n 根を求めたい頂点
+	 * @return 根となっている頂点
+	 */
+	public int find(int n) {
+		while (true) {
+			int p = parent.get(n);
+			if (p < 0) return n;
+			int gp = parent.get(p);
+			if (gp < 0) return p;
+			parent.compareAndSet(n, p, gp); // 経路半減、失敗しても他のスレッドが祖先へ付け替えている
+			n = gp;
+		}
+	}
+
+	/**
+	 * 指定した頂点同士を連結します。<br>
+	 * 計算量は期待O(logN)です。
+	 * @param l 連結したい頂点
+	 * @param r 連結したい頂点
+	 * @return この関数によって連結されたならtrue、既に連結だったならfalse
+	 */
+	public boolean unite(int l, int r) {
+		while (true) {
+			if ((l = find(l)) == (r = find(r))) return false; // 既に連結
+			if (priority(l) > priority(r)) { // 優先度の低い方をlにする
+				int swap = l;
+				l = r;
+				r = swap;
+			}
+			int dat = parent.get(l);
+			if (dat < 0 && parent.compareAndSet(l, dat, r)) {
+				size.decrementAndGet();
+				while (true) { // lの要素数を、現在のrの根に加算する
+					int v = parent.get(r = find(r));
+					if (v < 0 && parent.compareAndSet(r, v, v + dat)) return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 各iについて、頂点u[i]と頂点v[i]を連結します。<br>
+	 * 辺をブロックに分割し、{@link ForkJoinPool#commonPool()}上で並列に連結します。
+	 * @param u 連結したい頂点
+	 * @param v 連結したい頂点
+	 * @return この関数によって連結された回数
+	 */
+	public int uniteAll(int[] u, int[] v) {
+		if (u.length != v.length) throw new IllegalArgumentException("length is different: " + u.length + ", " + v.length);
+		AtomicInteger ret = new AtomicInteger();
+		parallelFor(0, (u.length + BLOCK - 1) / BLOCK, 1, block -> { // BLOCK本ずつの辺をまとめて1個のタスクとする
+			int count = 0;
+			for (int i = block * BLOCK, end = Math.min(i + BLOCK, u.length);i < end;++ i) if (unite(u[i], v[i])) ++ count;
+			ret.addAndGet(count);
+		});
+		return ret.get();
+	}
+
+	/**
+	 * 指定した頂点が根か判定します。<br>
+	 * 計算量はO(1)です。
+	 * @param n 判定したい頂点
+	 * @return nが根ならばtrue
+	 */
+	public boolean isRoot(int n) {
+		return parent.get(n) < 0;
+	}
+
+	/**
+	 * 指定した2個の頂点が連結か判定します。<br>
+	 * 計算量は期待O(logN)です。
+	 * @param l 判定したい頂点
+	 * @param r 判定したい頂点
+	 * @return lとrが連結ならばtrue
+	 */
+	public boolean isUnion(int l, int r) {
+		while (true) {
+			if ((l = find(l)) == (r = find(r))) return true;
+			if (parent.get(l) < 0) return false; // rの根を求めた時点でlが根のままなら、その時点で非連結
+		}
+	}
+
+	/**
+	 * 指定した頂点を含む連結成分の要素数を求めます。<br>
+	 * 計算量は期待O(logN)です。
+	 * @param n 要素数を求めたい連結成分の要素
+	 * @return 頂点nを含む連結成分の要素数
+	 */
+	public int getSize(int n) {
+		while (true) {
+			int v = parent.get(n = find(n));
+			if (v < 0) return -v;
+		}
+	}
+
+	/**
+	 * 各頂点が属する連結成分の番号を求めます。<br>
+	 * 連結成分には、その最小の頂点が小さい順に0から番号が振られます。<br>
+	 * 他のスレッドが連結を行っていない状態で呼び出す必要があります。
+	 * @return i番目の要素が頂点iの属する連結成分の番号であるような配列
+	 */
+	public int[] componentId() {
+		int N = parent.length();
+		int[] ret = new int[N];
+		parallelFor(0, N, i -> ret[i] = find(i));
+		int[] id = new int[N];
+		java.util.Arrays.fill(id, -1);
+		for (int i = 0, count = 0;i < N;++ i) { // 頂点を小さい順に見て、初めて現れた根に番号を振る
+			if (id[ret[i]] < 0) id[ret[i]] = count++;
+			ret[i] = id[ret[i]];
+		}
+		return ret;
+	}
+
+	/**
+	 * N頂点と辺(u[i], v[i])からなるグラフの連結成分を、並列に求めます。<br>
+	 * 連結成分には、その最小の頂点が小さい順に0から番号が振られます。
+	 * @param N 頂点数
+	 * @param u 辺の端点
+	 * @param v 辺の端点
+	 * @return i番目の要素が頂点iの属する連結成分の番号であるような配列
+	 */
+	public static int[] componentId(int N, int[] u, int[] v) {
+		ConcurrentUnionFind uf = new ConcurrentUnionFind(N);
+		uf.uniteAll(u, v);
+		return uf.componentId();
+	}
+
+	/**
+	 * 連結成分の個数を求めます。<br>
+	 * 計算量はO(1)です。
+	 * @return 連結成分の個数
+	 */
+	public int getUnion() {
+		return size.get();
+	}
+}
@@ -258,17 +258,26 @@ public final class Distance {
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * Myers/Hyyröのビット並列アルゴリズムを用いるため、短い方の長さをM、長い方の長さをNとしてO(N⌈M/64⌉)で動作します。<br>
+	 * 文字毎に現れるブロックのみを疎に持つため、使用するメモリは文字の種類数によらずO(N + M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final String a, final String b) {
-		return levenshteinDistance(a, b, 1, 1, 1);
+		if (a.length() < b.length()) return levenshteinDistance(b, a); // 各操作のコストが等しいため、aとbを入れ替えても距離は変わらない
+		if (b.length() == 0) return a.length();
+		final SymbolTable table = new SymbolTable(b.length());
+		final int[] pattern = new int[b.length()], text = new int[a.length()];
+		for (int i = 0;i < pattern.length;++ i) pattern[i] = table.add(b.charAt(i));
+		for (int i = 0;i < text.length;++ i) text[i] = table.get(a.charAt(i));
+		return bitParallelLevenshteinDistance(pattern, text, table.size());
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * 二行分のDPテーブルのみを保持するため、使用するメモリは短い方の長さをMとしてO(M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @param insertion 挿入コスト
@@ -277,32 +286,82 @@ public final class Distance {
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final String a, final String b, final int insertion, final int deletion, final int replacement) {
-		final int[][] dp = new int[a.length() + 1][b.length() + 1];
-		for (int i = 0;i < dp.length;++ i) {
-			Arrays.fill(dp[i], 0);
-			dp[i][0] = i;
+		if (a.length() < b.length()) return levenshteinDistance(b, a, deletion, insertion, replacement); // aとbを入れ替えると、挿入と削除が入れ替わる
+		final int[] dp = new int[b.length() + 1]; // dp[j]は、aのi文字目までとbのj文字目までの距離
+		for (int j = 1;j < dp.length;++ j) dp[j] = dp[j - 1] + deletion;
+		for (int i = 1;i <= a.length();++ i) {
+			int diagonal = dp[0];
+			dp[0] += insertion;
+			for (int j = 1;j < dp.length;++ j) {
+				final int next = Math.min(Math.min(dp[j] + insertion, dp[j - 1] + deletion), diagonal + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : replacement));
+				diagonal = dp[j];
+				dp[j] = next;
+			}
 		}
-		for (int i = 0;i <= b.length();++ i) dp[0][i] = i;
-		for (int i = 1;i < dp.length;++ i) {
-			for (int j = 1;j < dp[i].length;++ j) {
-				dp[i][j] = Math.min(Math.min(dp[i - 1][j] + insertion, dp[i][j - 1] + deletion), dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : replacement));
+		return dp[b.length()];
+	}
+
+	/**
+	 * aとbのレーベンシュタイン距離が、maxDistance以下であれば導出します。<br>
+	 * DPテーブルのうち対角線からmaxDistance以内の帯のみを計算し、帯の中の最小値がmaxDistanceを超えた時点で打ち切ります。
+	 * このため、短い方の長さをMとしてO(M・maxDistance)で動作し、使用するメモリはO(maxDistance)です。
+	 * @param a 始点
+	 * @param b 終点
+	 * @param maxDistance 距離の上限
+	 * @return aとbのレーベンシュタイン距離、maxDistanceを超える場合は-1
+	 */
+	public static int levenshteinDistance(final String a, final String b, final int maxDistance) {
+		if (maxDistance < 0) throw new IllegalArgumentException("maxDistance is negative: " + maxDistance);
+		if (a.length() > b.length()) return levenshteinDistance(b, a, maxDistance);
+		final int n = a.length(), m = b.length();
+		if (m - n > maxDistance) return -1;
+		final int k = Math.min(maxDistance, m), width = 2 * k + 1, inf = k + 1;
+		int[] prev = new int[width + 2], cur = new int[width + 2]; // prev[d + 1]は、dp[i][i + d - k]
+		Arrays.fill(prev, inf);
+		Arrays.fill(cur, inf);
+		for (int j = 0;j <= k;++ j) prev[j + k + 1] = j;
+		for (int i = 1;i <= n;++ i) {
+			int min = inf;
+			for (int d = 0;d < width;++ d) {
+				final int j = i + d - k;
+				if (j < 0 || j > m) {
+					cur[d + 1] = inf;
+					continue;
+				}
+				final int next = j == 0 ? i : Math.min(Math.min(Math.min(prev[d + 2], cur[d]) + 1, prev[d + 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1)), inf);
+				cur[d + 1] = next;
+				min = Math.min(min, next);
 			}
+			if (min > maxDistance) return -1;
+			final int[] swap = prev;
+			prev = cur;
+			cur = swap;
 		}
-		return dp[a.length()][b.length()];
+		final int ret = prev[m - n + k + 1];
+		return ret > maxDistance ? -1 : ret;
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * Myers/Hyyröのビット並列アルゴリズムを用いるため、短い方の長さをM、長い方の長さをNとしてO(N⌈M/64⌉)で動作します。<br>
+	 * 文字毎に現れるブロックのみを疎に持つため、使用するメモリは文字の種類数によらずO(N + M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final char[] a, final char[] b) {
-		return levenshteinDistance(a, b, 1, 1, 1);
+		if (a.length < b.length) return levenshteinDistance(b, a); // 各操作のコストが等しいため、aとbを入れ替えても距離は変わらない
+		if (b.length == 0) return a.length;
+		final SymbolTable table = new SymbolTable(b.length);
+		final int[] pattern = new int[b.length], text = new int[a.length];
+		for (int i = 0;i < pattern.length;++ i) pattern[i] = table.add(b[i]);
+		for (int i = 0;i < text.length;++ i) text[i] = table.get(a[i]);
+		return bitParallelLevenshteinDistance(pattern, text, table.size());
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * 二行分のDPテーブルのみを保持するため、使用するメモリは短い方の長さをMとしてO(M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @param insertion 挿入コスト
@@ -311,32 +370,82 @@ public final class Distance {
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final char[] a, final char[] b, final int insertion, final int deletion, final int replacement) {
-		final int[][] dp = new int[a.length + 1][b.length + 1];
-		for (int i = 0;i < dp.length;++ i) {
-			Arrays.fill(dp[i], 0);
-			dp[i][0] = i;
+		if (a.length < b.length) return levenshteinDistance(b, a, deletion, insertion, replacement); // aとbを入れ替えると、挿入と削除が入れ替わる
+		final int[] dp = new int[b.length + 1]; // dp[j]は、aのi文字目までとbのj文字目までの距離
+		for (int j = 1;j < dp.length;++ j) dp[j] = dp[j - 1] + deletion;
+		for (int i = 1;i <= a.length;++ i) {
+			int diagonal = dp[0];
+			dp[0] += insertion;
+			for (int j = 1;j < dp.length;++ j) {
+				final int next = Math.min(Math.min(dp[j] + insertion, dp[j - 1] + deletion), diagonal + (a[i - 1] == b[j - 1] ? 0 : replacement));
+				diagonal = dp[j];
+				dp[j] = next;
+			}
 		}
-		for (int i = 0;i <= b.length;++ i) dp[0][i] = i;
-		for (int i = 1;i < dp.length;++ i) {
-			for (int j = 1;j < dp[i].length;++ j) {
-				dp[i][j] = Math.min(Math.min(dp[i - 1][j] + insertion, dp[i][j - 1] + deletion), dp[i - 1][j - 1] + (a[i - 1] == b[j - 1] ? 0 : replacement));
+		return dp[b.length];
+	}
+
+	/**
+	 * aとbのレーベンシュタイン距離が、maxDistance以下であれば導出します。<br>
+	 * DPテーブルのうち対角線からmaxDistance以内の帯のみを計算し、帯の中の最小値がmaxDistanceを超えた時点で打ち切ります。
+	 * このため、短い方の長さをMとしてO(M・maxDistance)で動作し、使用するメモリはO(maxDistance)です。
+	 * @param a 始点
+	 * @param b 終点
+	 * @param maxDistance 距離の上限
+	 * @return aとbのレーベンシュタイン距離、maxDistanceを超える場合は-1
+	 */
+	public static int levenshteinDistance(final char[] a, final char[] b, final int maxDistance) {
+		if (maxDistance < 0) throw new IllegalArgumentException("maxDistance is negative: " + maxDistance);
+		if (a.length > b.length) return levenshteinDistance(b, a, maxDistance);
+		final int n = a.length, m = b.length;
+		if (m - n > maxDistance) return -1;
+		final int k = Math.min(maxDistance, m), width = 2 * k + 1, inf = k + 1;
+		int[] prev = new int[width + 2], cur = new int[width + 2]; // prev[d + 1]は、dp[i][i + d - k]
+		Arrays.fill(prev, inf);
+		Arrays.fill(cur, inf);
+		for (int j = 0;j <= k;++ j) prev[j + k + 1] = j;
+		for (int i = 1;i <= n;++ i) {
+			int min = inf;
+			for (int d = 0;d < width;++ d) {
+				final int j = i + d - k;
+				if (j < 0 || j > m) {
+					cur[d + 1] = inf;
+					continue;
+				}
+				final int next = j == 0 ? i : Math.min(Math.min(Math.min(prev[d + 2], cur[d]) + 1, prev[d + 1] + (a[i - 1] == b[j - 1] ? 0 : 1)), inf);
+				cur[d + 1] = next;
+				min = Math.min(min, next);
 			}
+			if (min > maxDistance) return -1;
+			final int[] swap = prev;
+			prev = cur;
+			cur = swap;
 		}
-		return dp[a.length][b.length];
+		final int ret = prev[m - n + k + 1];
+		return ret > maxDistance ? -1 : ret;
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * Myers/Hyyröのビット並列アルゴリズムを用いるため、短い方の長さをM、長い方の長さをNとしてO(N⌈M/64⌉)で動作します。<br>
+	 * 文字毎に現れるブロックのみを疎に持つため、使用するメモリは文字の種類数によらずO(N + M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final int[] a, final int[] b) {
-		return levenshteinDistance(a, b, 1, 1, 1);
+		if (a.length < b.length) return levenshteinDistance(b, a); // 各操作のコストが等しいため、aとbを入れ替えても距離は変わらない
+		if (b.length == 0) return a.length;
+		final SymbolTable table = new SymbolTable(b.length);
+		final int[] pattern = new int[b.length], text = new int[a.length];
+		for (int i = 0;i < pattern.length;++ i) pattern[i] = table.add(b[i]);
+		for (int i = 0;i < text.length;++ i) text[i] = table.get(a[i]);
+		return bitParallelLevenshteinDistance(pattern, text, table.size());
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * 二行分のDPテーブルのみを保持するため、使用するメモリは短い方の長さをMとしてO(M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @param insertion 挿入コスト
@@ -345,32 +454,82 @@ public final class Distance {
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final int[] a, final int[] b, final int insertion, final int deletion, final int replacement) {
-		final int[][] dp = new int[a.length + 1][b.length + 1];
-		for (int i = 0;i < dp.length;++ i) {
-			Arrays.fill(dp[i], 0);
-			dp[i][0] = i;
+		if (a.length < b.length) return levenshteinDistance(b, a, deletion, insertion, replacement); // aとbを入れ替えると、挿入と削除が入れ替わる
+		final int[] dp = new int[b.length + 1]; // dp[j]は、aのi文字目までとbのj文字目までの距離
+		for (int j = 1;j < dp.length;++ j) dp[j] = dp[j - 1] + deletion;
+		for (int i = 1;i <= a.length;++ i) {
+			int diagonal = dp[0];
+			dp[0] += insertion;
+			for (int j = 1;j < dp.length;++ j) {
+				final int next = Math.min(Math.min(dp[j] + insertion, dp[j - 1] + deletion), diagonal + (a[i - 1] == b[j - 1] ? 0 : replacement));
+				diagonal = dp[j];
+				dp[j] = next;
+			}
 		}
-		for (int i = 0;i <= b.length;++ i) dp[0][i] = i;
-		for (int i = 1;i < dp.length;++ i) {
-			for (int j = 1;j < dp[i].length;++ j) {
-				dp[i][j] = Math.min(Math.min(dp[i - 1][j] + insertion, dp[i][j - 1] + deletion), dp[i - 1][j - 1] + (a[i - 1] == b[j - 1] ? 0 : replacement));
+		return dp[b.length];
+	}
+
+	/**
+	 * aとbのレーベンシュタイン距離が、maxDistance以下であれば導出します。<br>
+	 * DPテーブルのうち対角線からmaxDistance以内の帯のみを計算し、帯の中の最小値がmaxDistanceを超えた時点で打ち切ります。
+	 * このため、短い方の長さをMとしてO(M・maxDistance)で動作し、使用するメモリはO(maxDistance)です。
+	 * @param a 始点
+	 * @param b 終点
+	 * @param maxDistance 距離の上限
+	 * @return aとbのレーベンシュタイン距離、maxDistanceを超える場合は-1
+	 */
+	public static int levenshteinDistance(final int[] a, final int[] b, final int maxDistance) {
+		if (maxDistance < 0) throw new IllegalArgumentException("maxDistance is negative: " + maxDistance);
+		if (a.length > b.length) return levenshteinDistance(b, a, maxDistance);
+		final int n = a.length, m = b.length;
+		if (m - n > maxDistance) return -1;
+		final int k = Math.min(maxDistance, m), width = 2 * k + 1, inf = k + 1;
+		int[] prev = new int[width + 2], cur = new int[width + 2]; // prev[d + 1]は、dp[i][i + d - k]
+		Arrays.fill(prev, inf);
+		Arrays.fill(cur, inf);
+		for (int j = 0;j <= k;++ j) prev[j + k + 1] = j;
+		for (int i = 1;i <= n;++ i) {
+			int min = inf;
+			for (int d = 0;d < width;++ d) {
+				final int j = i + d - k;
+				if (j < 0 || j > m) {
+					cur[d + 1] = inf;
+					continue;
+				}
+				final int next = j == 0 ? i : Math.min(Math.min(Math.min(prev[d + 2], cur[d]) + 1, prev[d + 1] + (a[i - 1] == b[j - 1] ? 0 : 1)), inf);
+				cur[d + 1] = next;
+				min = Math.min(min, next);
 			}
+			if (min > maxDistance) return -1;
+			final int[] swap = prev;
+			prev = cur;
+			cur = swap;
 		}
-		return dp[a.length][b.length];
+		final int ret = prev[m - n + k + 1];
+		return ret > maxDistance ? -1 : ret;
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * Myers/Hyyröのビット並列アルゴリズムを用いるため、短い方の長さをM、長い方の長さをNとしてO(N⌈M/64⌉)で動作します。<br>
+	 * 文字毎に現れるブロックのみを疎に持つため、使用するメモリは文字の種類数によらずO(N + M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final long[] a, final long[] b) {
-		return levenshteinDistance(a, b, 1, 1, 1);
+		if (a.length < b.length) return levenshteinDistance(b, a); // 各操作のコストが等しいため、aとbを入れ替えても距離は変わらない
+		if (b.length == 0) return a.length;
+		final SymbolTable table = new SymbolTable(b.length);
+		final int[] pattern = new int[b.length], text = new int[a.length];
+		for (int i = 0;i < pattern.length;++ i) pattern[i] = table.add(b[i]);
+		for (int i = 0;i < text.length;++ i) text[i] = table.get(a[i]);
+		return bitParallelLevenshteinDistance(pattern, text, table.size());
 	}
 
 	/**
-	 * aとbのレーベンシュタイン距離を導出します。
+	 * aとbのレーベンシュタイン距離を導出します。<br>
+	 * 二行分のDPテーブルのみを保持するため、使用するメモリは短い方の長さをMとしてO(M)です。
 	 * @param a 始点
 	 * @param b 終点
 	 * @param insertion 挿入コスト
@@ -379,17 +538,144 @@ public final class Distance {
 	 * @return aとbのレーベンシュタイン距離
 	 */
 	public static int levenshteinDistance(final long[] a, final long[] b, final int insertion, final int deletion, final int replacement) {
-		final int[][] dp = new int[a.length + 1][b.length + 1];
-		for (int i = 0;i < dp.length;++ i) {
-			Arrays.fill(dp[i], 0);
-			dp[i][0] = i;
+		if (a.length < b.length) return levenshteinDistance(b, a, deletion, insertion, replacement); // aとbを入れ替えると、挿入と削除が入れ替わる
+		final int[] dp = new int[b.length + 1]; // dp[j]は、aのi文字目までとbのj文字目までの距離
+		for (int j = 1;j < dp.length;++ j) dp[j] = dp[j - 1] + deletion;
+		for (int i = 1;i <= a.length;++ i) {
+			int diagonal = dp[0];
+			dp[0] += insertion;
+			for (int j = 1;j < dp.length;++ j) {
+				final int next = Math.min(Math.min(dp[j] + insertion, dp[j - 1] + deletion), diagonal + (a[i - 1] == b[j - 1] ? 0 : replacement));
+				diagonal = dp[j];
+				dp[j] = next;
+			}
+		}
+		return dp[b.length];
+	}
+
+	/**
+	 * aとbのレーベンシュタイン距離が、maxDistance以下であれば導出します。<br>
+	 * DPテーブルのうち対角線からmaxDistance以内の帯のみを計算し、帯の中の最小値がmaxDistanceを超えた時点で打ち切ります。
+	 * このため、短い方の長さをMとしてO(M・maxDistance)で動作し、使用するメモリはO(maxDistance)です。
+	 * @param a 始点
+	 * @param b 終点
+	 * @param maxDistance 距離の上限
+	 * @return aとbのレーベンシュタイン距離、maxDistanceを超える場合は-1
+	 */
+	public static int levenshteinDistance(final long[] a, final long[] b, final int maxDistance) {
+		if (maxDistance < 0) throw new IllegalArgumentException("maxDistance is negative: " + maxDistance);
+		if (a.length > b.length) return levenshteinDistance(b, a, maxDistance);
+		final int n = a.length, m = b.length;
+		if (m - n > maxDistance) return -1;
+		final int k = Math.min(maxDistance, m), width = 2 * k + 1, inf = k + 1;
+		int[] prev = new int[width + 2], cur = new int[width + 2]; // prev[d + 1]は、dp[i][i + d - k]
+		Arrays.fill(prev, inf);
+		Arrays.fill(cur, inf);
+		for (int j = 0;j <= k;++ j) prev[j + k + 1] = j;
+		for (int i = 1;i <= n;++ i) {
+			int min = inf;
+			for (int d = 0;d < width;++ d) {
+				final int j = i + d - k;
+				if (j < 0 || j > m) {
+					cur[d + 1] = inf;
+					continue;
+				}
+				final int next = j == 0 ? i : Math.min(Math.min(Math.min(prev[d + 2], cur[d]) + 1, prev[d + 1] + (a[i - 1] == b[j - 1] ? 0 : 1)), inf);
+				cur[d + 1] = next;
+				min = Math.min(min, next);
+			}
+			if (min > maxDistance) return -1;
+			final int[] swap = prev;
+			prev = cur;
+			cur = swap;
+		}
+		final int ret = prev[m - n + k + 1];
+		return ret > maxDistance ? -1 : ret;
+	}
+
+	private static int bitParallelLevenshteinDistance(final int[] pattern, final int[] text, final int sigma) { // patternの各文字をビットに割り当て、textを一文字ずつ読む
+		final int m = pattern.length, words = m + 63 >>> 6, last = m - 1 & 63;
+		final int[] start = new int[sigma + 1], lastBlock = new int[sigma]; // 文字毎に、その文字が現れるブロックとビットマスクの組を疎に持つ
+		Arrays.fill(lastBlock, -1);
+		for (int i = 0;i < m;++ i) {
+			final int c = pattern[i];
+			if (lastBlock[c] != i >>> 6) {
+				lastBlock[c] = i >>> 6;
+				++ start[c + 1];
+			}
+		}
+		for (int c = 0;c < sigma;++ c) start[c + 1] += start[c];
+		final int[] block = new int[start[sigma]];
+		final long[] mask = new long[start[sigma]];
+		final int[] fill = Arrays.copyOf(start, sigma);
+		for (int i = 0;i < m;++ i) { // iは昇順なので、同じブロックは連続して現れる
+			final int c = pattern[i];
+			if (fill[c] == start[c] || block[fill[c] - 1] != i >>> 6) block[fill[c]++] = i >>> 6;
+			mask[fill[c] - 1] |= 1L << i;
+		}
+		final long[] peq = new long[words]; // 今読んでいる文字について、peq[k]のiビット目はpattern[64k+i]がその文字と等しいか
+		final long[] pv = new long[words], mv = new long[words]; // DPテーブルの縦方向の差分が+1、-1であるか
+		Arrays.fill(pv, -1L);
+		int score = m;
+		for (final int c : text) {
+			if (c >= 0) for (int e = start[c];e < start[c + 1];++ e) peq[block[e]] = mask[e];
+			int hin = 1; // ブロックの上端における横方向の差分
+			for (int k = 0;k < words;++ k) {
+				long eq = peq[k];
+				final long p = pv[k], n = mv[k], xv = eq | n;
+				if (hin < 0) eq |= 1;
+				final long xh = ((eq & p) + p ^ p) | eq;
+				long ph = n | ~(xh | p), mh = p & xh;
+				final int hout = (int)(ph >>> 63) - (int)(mh >>> 63);
+				if (k == words - 1) score += (int)(ph >>> last & 1) - (int)(mh >>> last & 1);
+				ph <<= 1;
+				mh <<= 1;
+				if (hin < 0) mh |= 1;
+				else if (hin > 0) ph |= 1;
+				pv[k] = mh | ~(xv | ph);
+				mv[k] = ph & xv;
+				hin = hout;
+			}
+			if (c >= 0) for (int e = start[c];e < start[c + 1];++ e) peq[block[e]] = 0;
+		}
+		return score;
+	}
+
+	private static final class SymbolTable { // 値に0から順に番号を振る、開番地法のハッシュテーブル
+		private final long[] key;
+		private final int[] value;
+		private final int mask;
+		private int size;
+
+		SymbolTable(final int capacity) {
+			final int length = Integer.highestOneBit(Math.max(1, capacity)) << 2;
+			key = new long[length];
+			value = new int[length];
+			Arrays.fill(value, -1);
+			mask = length - 1;
+		}
+
+		private int slot(final long k) {
+			int i = (int)(k * 0x9E3779B97F4A7C15L >>> 40) & mask;
+			while (value[i] >= 0 && key[i] != k) i = i + 1 & mask;
+			return i;
 		}
-		for (int i = 0;i <= b.length;++ i) dp[0][i] = i;
-		for (int i = 1;i < dp.length;++ i) {
-			for (int j = 1;j < dp[i].length;++ j) {
-				dp[i][j] = Math.min(Math.min(dp[i - 1][j] + insertion, dp[i][j - 1] + deletion), dp[i - 1][j - 1] + (a[i - 1] == b[j - 1] ? 0 : replacement));
+
+		int add(final long k) {
+			final int i = slot(k);
+			if (value[i] < 0) {
+				key[i] = k;
+				value[i] = size++;
 			}
+			return value[i];
+		}
+
+		int get(final long k) {
+			return value[slot(k)];
+		}
+
+		int size() {
+			return size;
 		}
-		return dp[a.length][b.length];
 	}
 }
@@ -0,0 +1,124 @@
+package com._31536000.algo;
+
+import com._31536000.math.algebraic.group.DoubleAbelian;
+
+/**
+ * 多次元累積和を計算します。<br>
+ * 値は行優先で並べた一次元配列で与え、累積和も各次元の大きさに1を足した一次元配列で管理します。
+ * 次元をDとして、直方体領域の合計をO(2^D)で求めることができます。<br>
+ * これは、{@link CumulativeSum}を多次元に拡張し、プリミティブ型特殊化(double向け)を行ったものです。
+ * @author 31536000
+ *
+ */
+public class DoubleCumulativeSumND {
+	private final double[] sum;
+	private final int[] shape, stride; // 累積和の配列における、各次元の大きさと添字の間隔
+	private final DoubleAbelian operate;
+
+	private DoubleCumulativeSumND(double[] dat, int[] shape, DoubleAbelian operate) {
+		this.operate = operate;
+		this.shape = shape.clone();
+		int D = shape.length;
+		stride = new int[D];
+		long length = 1, size = 1;
+		for (int d = D - 1;d >= 0;-- d) {
+			if (shape[d] < 0) throw new IllegalArgumentException("shape is negative: " + shape[d]);
+			stride[d] = (int)length;
+			length *= shape[d] + 1;
+			size *= shape[d];
+			if (length > Integer.MAX_VALUE) throw new IllegalArgumentException("too large.");
+		}
+		if (size != dat.length) throw new IllegalArgumentException("length is different: " + dat.length + ", " + size);
+		sum = new double[(int)length];
+		double identity = operate.identityAsDouble();
+		if (identity != 0) java.util.Arrays.fill(sum, identity);
+		int[] index = new int[D];
+		for (int i = 0;i < dat.length;++ i) { // dat[i]を、各座標に1を足した位置に置く
+			int to = 0;
+			for (int d = 0;d < D;++ d) to += (index[d] + 1) * stride[d];
+			sum[to] = dat[i];
+			for (int d = D - 1;d >= 0 && ++ index[d] == shape[d];-- d) index[d] = 0;
+		}
+		for (int d = 0;d < D;++ d) { // 次元毎に累積和を取る
+			for (int i = 0;i < sum.length;++ i) if (i / stride[d] % (shape[d] + 1) != 0) sum[i] = operate.applyAsDouble(sum[i - stride[d]], sum[i]);
+		}
+	}
+
+	/**
+	 * 次元を返します。
+	 * @return 次元
+	 */
+	public int dimension() {
+		return shape.length;
+	}
+
+	/**
+	 * 指定した次元の大きさを返します。
+	 * @param dimension 次元
+	 * @return その次元の大きさ
+	 */
+	public int size(int dimension) {
+		return shape[dimension];
+	}
+
+	private int index(int[] to) {
+		if (to.length != shape.length) throw new IllegalArgumentException("dimension is different: " + to.length + ", " + shape.length);
+		int ret = 0;
+		for (int d = 0;d < shape.length;++ d) {
+			if (to[d] < 0 || to[d] > shape[d]) throw new IndexOutOfBoundsException("index: " + to[d] + ", size: " + shape[d]);
+			ret += to[d] * stride[d];
+		}
+		return ret;
+	}
+
+	/**
+	 * [0, to[0])×[0, to[1])×…の値の合計を返します。
+	 * @param to 各次元の開区間
+	 * @return [0, to[0])×[0, to[1])×…の値の合計
+	 */
+	public double getSumAsDouble(int[] to) {
+		return sum[index(to)];
+	}
+
+	/**
+	 * 直方体領域[from[0], to[0])×[from[1], to[1])×…の値の合計を返します。<br>
+	 * 計算量はO(2^D)です。
+	 * @param from 各次元の閉区間
+	 * @param to 各次元の開区間
+	 * @return [from[0], to[0])×[from[1], to[1])×…の値の合計
+	 */
+	public double getSumAsDouble(int[] from, int[] to) {
+		index(from);
+		int upper = index(to);
+		for (int d = 0;d < shape.length;++ d) if (from[d] > to[d]) throw new IndexOutOfBoundsException("[" + from[d] + ", " + to[d] + ") is out of bounds: " + shape[d]);
+		double plus = operate.identityAsDouble(), minus = plus;
+		for (int mask = 0;mask < 1 << shape.length;++ mask) { // 包除原理、fromを選んだ次元の個数の偶奇で符号が決まる
+			int index = upper;
+			for (int d = 0;d < shape.length;++ d) if ((mask >> d & 1) != 0) index -= (to[d] - from[d]) * stride[d];
+			if ((Integer.bitCount(mask) & 1) == 0) plus = operate.applyAsDouble(plus, sum[index]);
+			else minus = operate.applyAsDouble(minus, sum[index]);
+		}
+		return operate.applyAsDouble(plus, operate.inverseAsDouble(minus));
+	}
+
+	/**
+	 * 多次元累積和を構築します。
+	 * @param dat 行優先で並べた、構築する配列
+	 * @param shape 各次元の大きさ
+	 * @param operate 演算
+	 * @return 多次元累積和
+	 */
+	public static DoubleCumulativeSumND create(double[] dat, int[] shape, DoubleAbelian operate) {
+		return new DoubleCumulativeSumND(dat, shape, operate);
+	}
+
+	/**
+	 * 和に関する多次元累積和を構築します。
+	 * @param dat 行優先で並べた、構築する配列
+	 * @param shape 各次元の大きさ
+	 * @return 多次元累積和
+	 */
+	public static DoubleCumulativeSumND create(double[] dat, int[] shape) {
+		return new DoubleCumulativeSumND(dat, shape, DoubleCumulativeSum.ADD);
+	}
+}
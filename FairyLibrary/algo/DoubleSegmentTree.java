@@ -0,0 +1,297 @@
+package com._31536000.algo;
+
+import java.util.function.DoublePredicate;
+import java.util.function.IntToDoubleFunction;
+import com._31536000.math.algebraic.group.DoubleMonoid;
+
+/**
+ * セグメント木です。<br>
+ * １点更新をO(logN)、範囲取得をO(logN)でできるデータ構造です。<br>
+ * これは、{@link SegmentTree}に対してプリミティブ型特殊化(double向け)を行ったものです。
+ * インスタンスは{@link SegmentTree#create(int, DoubleMonoid)}などから生成します。
+ * @author 31536000
+ */
+public abstract class DoubleSegmentTree {
+
+	DoubleSegmentTree() {
+	}
+
+	static final class MonoidSegmentTree extends DoubleSegmentTree {
+		private final DoubleMonoid group;
+		private final double[] array;
+		private final int size, leaf;
+
+		MonoidSegmentTree(int N, DoubleMonoid group) {
+			this.group = group;
+			size = N;
+			leaf = N == 1 ? 1 : Integer.highestOneBit(N - 1) << 1;
+			array = new double[leaf << 1];
+			java.util.Arrays.fill(array, group.identityAsDouble());
+		}
+
+		MonoidSegmentTree(double[] dat, DoubleMonoid group) {
+			this(dat.length, group);
+			System.arraycopy(dat, 0, array, leaf, dat.length);
+			for (int i = leaf - 1;i > 0;-- i) array[i] = group.applyAsDouble(array[i << 1], array[i << 1 | 1]);
+		}
+
+		MonoidSegmentTree(int N, IntToDoubleFunction dat, DoubleMonoid group) {
+			this(N, group);
+			for (int i = 0;i < N;++ i) array[leaf | i] = dat.applyAsDouble(i);
+			for (int i = leaf - 1;i > 0;-- i) array[i] = group.applyAsDouble(array[i << 1], array[i << 1 | 1]);
+		}
+
+		@Override
+		public double setAsDouble(int index, double dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			index |= leaf;
+			double ret = array[index];
+			array[index] = dat;
+			for (index >>= 1;index > 0;index >>= 1) array[index] = group.applyAsDouble(array[index << 1], array[index << 1 | 1]);
+			return ret;
+		}
+
+		@Override
+		public void applyAsDouble(int index, double dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			setAsDouble(index, group.applyAsDouble(array[index | leaf], dat));
+		}
+
+		@Override
+		public void setAllAsDouble(int[] indices, double[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) array[dirty[i] = indices[i] | leaf] = values[i];
+			recalc(dirty);
+		}
+
+		@Override
+		public void applyAllAsDouble(int[] indices, double[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) array[dirty[i] = indices[i] | leaf] = group.applyAsDouble(array[indices[i] | leaf], values[i]);
+			recalc(dirty);
+		}
+
+		private void recalc(int[] dirty) { // 葉を書き換えた後、祖先を各段で1回ずつ再計算する
+			java.util.Arrays.sort(dirty);
+			for (int length = dirty.length;length > 0 && dirty[0] > 1;) {
+				int next = 0;
+				for (int i = 0;i < length;++ i) {
+					int parent = dirty[i] >> 1;
+					if (next != 0 && dirty[next - 1] == parent) continue;
+					dirty[next++] = parent;
+					array[parent] = group.applyAsDouble(array[parent << 1], array[parent << 1 | 1]);
+				}
+				length = next;
+			}
+		}
+
+		@Override
+		public double getAsDouble(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			return array[index | leaf];
+		}
+
+		@Override
+		public double getAsDouble(int l, int r) {
+			if (l < 0 || l > r || r > size) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+			double L = group.identityAsDouble(), R = group.identityAsDouble();
+			for (l += leaf, r += leaf;l < r;l >>= 1, r >>= 1) {
+				if ((l & 1) != 0) L = group.applyAsDouble(L, array[l++]);
+				if ((r & 1) != 0) R = group.applyAsDouble(array[--r], R);
+			}
+			return group.applyAsDouble(L, R);
+		}
+
+		@Override
+		public double getAvoidAsDouble(int left, int right) {
+			return group.applyAsDouble(getAsDouble(0, left), getAsDouble(right, size));
+		}
+
+		@Override
+		public int binarySearch(int left, int right, DoublePredicate f) {
+			if (left < 0 || left > size || right < 0 || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			if (left <= right) return Math.min(maxRight(left, f), right) - 1;
+			return Math.max(minLeft(left, f), right);
+		}
+
+		private int maxRight(int left, DoublePredicate f) { // fold[left, pos)がfを満たす最大のpos
+			if (left == size) return size;
+			double sum = group.identityAsDouble();
+			left += leaf;
+			do {
+				while ((left & 1) == 0) left >>= 1;
+				if (!f.test(group.applyAsDouble(sum, array[left]))) {
+					while (left < leaf) { // 今度は降下しながら見ていく
+						left <<= 1;
+						double next = group.applyAsDouble(sum, array[left]);
+						if (f.test(next)) {
+							sum = next;
+							++ left;
+						}
+					}
+					return left - leaf;
+				}
+				sum = group.applyAsDouble(sum, array[left++]);
+			} while ((left & -left) != left);
+			return size;
+		}
+
+		private int minLeft(int right, DoublePredicate f) { // fold[pos, right)がfを満たす最小のpos
+			if (right == 0) return 0;
+			double sum = group.identityAsDouble();
+			right += leaf;
+			do {
+				-- right;
+				while (right > 1 && (right & 1) != 0) right >>= 1;
+				if (!f.test(group.applyAsDouble(array[right], sum))) {
+					while (right < leaf) { // 今度は降下しながら見ていく
+						right = right << 1 | 1;
+						double next = group.applyAsDouble(array[right], sum);
+						if (f.test(next)) {
+							sum = next;
+							-- right;
+						}
+					}
+					return right + 1 - leaf;
+				}
+				sum = group.applyAsDouble(array[right], sum);
+			} while ((right & -right) != right);
+			return 0;
+		}
+
+		@Override
+		public double[] toArrayAsDouble() {
+			double[] ret = new double[size];
+			System.arraycopy(array, leaf, ret, 0, size);
+			return ret;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * 指定した場所の値を、datに置換します。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public abstract double setAsDouble(int index, double dat);
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、indexの値は元の値にdatを演算した値となります。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 */
+	public abstract void applyAsDouble(int index, double dat);
+
+	/**
+	 * 複数の場所の値をまとめて置換します。<br>
+	 * indices[i]の値をvalues[i]に置換することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void setAllAsDouble(int[] indices, double[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) setAsDouble(indices[i], values[i]);
+	}
+
+	/**
+	 * 複数の場所のデータをまとめて更新します。<br>
+	 * indices[i]の値にvalues[i]を演算することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void applyAllAsDouble(int[] indices, double[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) applyAsDouble(indices[i], values[i]);
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public double getAsDouble(int index) {
+		if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return getAsDouble(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。
+	 * @param l 範囲の左区間
+	 * @param r 範囲の右区間
+	 * @return 半開区間[l, r)の合計
+	 */
+	public abstract double getAsDouble(int l, int r);
+
+	/**
+	 * 指定した値を除く場所の値を取得します。
+	 * @param index 取得しない場所
+	 * @return 全体からindexを取り除いた値
+	 */
+	public double getAvoidAsDouble(int index) {
+		return getAvoidAsDouble(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲を除く区間の合計を取得します。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[0, left)+[right, size)の合計
+	 */
+	public abstract double getAvoidAsDouble(int left, int right);
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public double[] toArrayAsDouble() {
+		double[] ret = new double[size()];
+		for (int i = 0;i < ret.length;++ i) ret[i] = getAsDouble(i);
+		return ret;
+	}
+
+	/**
+	 * 全区間で二分探索を行います。
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[0, size)において関数fがtrueを返す最大の値(無ければ-1)
+	 */
+	public int binarySearch(DoublePredicate f) {
+		return binarySearch(0, size(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, size)において関数fがtrueを返す最大の値(無ければleft-1)
+	 */
+	public int binarySearch(int left, DoublePredicate f) {
+		return binarySearch(left, size(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public abstract int binarySearch(int left, int right, DoublePredicate f);
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public abstract int size();
+}
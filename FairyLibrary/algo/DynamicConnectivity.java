@@ -1,6 +1,479 @@
 package com._31536000.algo;
 
+import java.util.Arrays;
 
+/**
+ * 辺の追加と削除を行うグラフに対して、連結性の判定をオンラインで処理するデータ構造です。<br>
+ * Holm, de Lichtenberg, Thorupによる手法を用いており、辺の追加と削除はならしO(log^2N)、連結性の判定はならしO(logN)です。<br>
+ * 各辺はレベルを持ち、レベルi以上の辺からなる全域森をEuler Tour Treeで管理します。Euler Tour Treeはsplay木で実装され、頂点は全てint配列の添字で管理されます。
+ * @author 31536000
+ */
 public class DynamicConnectivity {
-	
+	private final int size, levels;
+	private int union;
+	// splay木の頂点、0は番兵でレベルiの頂点vは1+i*size+v、それ以降は辺を表す頂点
+	private int[] left, right, parent, nodeSize, vertexSize, treeCount, nonTreeCount, edgeOf;
+	private byte[] flag; // 1ビット目はレベルと等しい木辺であるか、2ビット目はレベルと等しい非木辺を持つ頂点であるか
+	private int nodes;
+	private int[] freeNode;
+	private int freeNodes;
+	// 辺の情報
+	private int[] edgeTable; // 端点の組から辺の番号を引く開番地法のハッシュ表、空なら-1
+	private int edgeTableSize, edgeTableShift;
+	private int[] from, to, level, position, arc; // positionは非木辺の隣接リストでの位置、arcは木辺の各レベルでのsplay木の頂点
+	private boolean[] isTree;
+	private int edges;
+	private int[] freeEdge;
+	private int freeEdges;
+	// 非木辺の隣接リスト、レベルiの頂点vはi*size+v
+	private final int[][] adjacent;
+	private final int[] adjacentSize;
+
+	/**
+	 * N頂点0辺のグラフを作ります。
+	 * @param N 頂点数
+	 */
+	public DynamicConnectivity(int N) {
+		if (N < 1) throw new IllegalArgumentException();
+		size = N;
+		union = N;
+		levels = 32 - Integer.numberOfLeadingZeros(N);
+		int capacity = levels * N + 1;
+		left = new int[capacity];
+		right = new int[capacity];
+		parent = new int[capacity];
+		nodeSize = new int[capacity];
+		vertexSize = new int[capacity];
+		treeCount = new int[capacity];
+		nonTreeCount = new int[capacity];
+		edgeOf = new int[capacity];
+		flag = new byte[capacity];
+		Arrays.fill(nodeSize, 1, capacity, 1);
+		Arrays.fill(vertexSize, 1, capacity, 1);
+		nodes = capacity;
+		freeNode = new int[16];
+		from = new int[16];
+		to = new int[16];
+		level = new int[16];
+		position = new int[32];
+		arc = new int[32 * levels];
+		isTree = new boolean[16];
+		freeEdge = new int[16];
+		edgeTable = new int[16];
+		Arrays.fill(edgeTable, -1);
+		edgeTableShift = 64 - 4;
+		adjacent = new int[levels * N][];
+		adjacentSize = new int[levels * N];
+	}
+
+	private int vertex(int level, int v) {
+		return 1 + level * size + v;
+	}
+
+	// 以下、splay木の操作
+
+	private void update(int x) {
+		int l = left[x], r = right[x];
+		nodeSize[x] = nodeSize[l] + nodeSize[r] + 1;
+		vertexSize[x] = vertexSize[l] + vertexSize[r] + (x <= levels * size ? 1 : 0);
+		treeCount[x] = treeCount[l] + treeCount[r] + (flag[x] & 1);
+		nonTreeCount[x] = nonTreeCount[l] + nonTreeCount[r] + (flag[x] >> 1 & 1);
+	}
+
+	private void rotate(int x) {
+		int p = parent[x], g = parent[p];
+		if (left[p] == x) {
+			left[p] = right[x];
+			if (right[x] != 0) parent[right[x]] = p;
+			right[x] = p;
+		} else {
+			right[p] = left[x];
+			if (left[x] != 0) parent[left[x]] = p;
+			left[x] = p;
+		}
+		parent[p] = x;
+		parent[x] = g;
+		if (g != 0) {
+			if (left[g] == p) left[g] = x;
+			else right[g] = x;
+		}
+		update(p);
+		update(x);
+	}
+
+	private void splay(int x) {
+		while (parent[x] != 0) {
+			int p = parent[x], g = parent[p];
+			if (g != 0) rotate((left[g] == p) == (left[p] == x) ? p : x);
+			rotate(x);
+		}
+	}
+
+	private int join(int a, int b) { // aを含む列の後ろにbを含む列を繋げ、根を返す
+		if (a == 0) {
+			if (b != 0) splay(b);
+			return b;
+		}
+		splay(a);
+		if (b == 0) return a;
+		while (right[a] != 0) a = right[a];
+		splay(a);
+		splay(b);
+		right[a] = b;
+		parent[b] = a;
+		update(a);
+		return a;
+	}
+
+	private int detachLeft(int x) { // xの左部分木を切り離して返す、xは根であること
+		int l = left[x];
+		if (l == 0) return 0;
+		left[x] = 0;
+		parent[l] = 0;
+		update(x);
+		return l;
+	}
+
+	private int detachRight(int x) { // xの右部分木を切り離して返す、xは根であること
+		int r = right[x];
+		if (r == 0) return 0;
+		right[x] = 0;
+		parent[r] = 0;
+		update(x);
+		return r;
+	}
+
+	private void reroot(int x) { // Euler Tourをxから始まるように回転させる
+		splay(x);
+		join(x, detachLeft(x));
+	}
+
+	private boolean connected(int a, int b) {
+		if (a == b) return true;
+		splay(a);
+		splay(b);
+		return parent[a] != 0; // 同じ木ならaはbの子孫になっている
+	}
+
+	private void setFlag(int x, int mask, boolean value) {
+		splay(x);
+		if (value) flag[x] |= mask;
+		else flag[x] &= ~mask;
+		update(x);
+	}
+
+	private int findFlag(int x, int mask) { // 根xの木からmaskが立っている頂点を探す
+		int[] count = mask == 1 ? treeCount : nonTreeCount;
+		while ((flag[x] & mask) == 0) x = count[left[x]] > 0 ? left[x] : right[x];
+		splay(x);
+		return x;
+	}
+
+	private int newNode(int edge) {
+		int x;
+		if (freeNodes > 0) x = freeNode[--freeNodes];
+		else {
+			if (nodes == left.length) {
+				int capacity = nodes + (nodes >> 1);
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+				parent = Arrays.copyOf(parent, capacity);
+				nodeSize = Arrays.copyOf(nodeSize, capacity);
+				vertexSize = Arrays.copyOf(vertexSize, capacity);
+				treeCount = Arrays.copyOf(treeCount, capacity);
+				nonTreeCount = Arrays.copyOf(nonTreeCount, capacity);
+				edgeOf = Arrays.copyOf(edgeOf, capacity);
+				flag = Arrays.copyOf(flag, capacity);
+			}
+			x = nodes++;
+		}
+		left[x] = right[x] = parent[x] = 0;
+		flag[x] = 0;
+		edgeOf[x] = edge;
+		update(x);
+		return x;
+	}
+
+	private void freeNode(int x) {
+		if (freeNodes == freeNode.length) freeNode = Arrays.copyOf(freeNode, freeNodes << 1);
+		freeNode[freeNodes++] = x;
+	}
+
+	// 以下、Euler Tour Treeの操作
+
+	private void linkTree(int e, int i) { // 辺eをレベルiの森に加える
+		int a = vertex(i, from[e]), b = vertex(i, to[e]);
+		int p = newNode(e), q = newNode(e);
+		arc[(e * levels + i) << 1] = p;
+		arc[(e * levels + i) << 1 | 1] = q;
+		if (level[e] == i) setFlag(p, 1, true);
+		reroot(a);
+		reroot(b);
+		join(join(join(a, p), b), q);
+	}
+
+	private void cutTree(int e, int i) { // 辺eをレベルiの森から取り除く
+		int p = arc[(e * levels + i) << 1], q = arc[(e * levels + i) << 1 | 1];
+		splay(p);
+		int positionP = nodeSize[left[p]];
+		splay(q);
+		if (positionP > nodeSize[left[q]]) {
+			int swap = p;
+			p = q;
+			q = swap;
+		}
+		// 列はA p B q Cとなっているので、A Cと Bに分ける
+		splay(p);
+		int A = detachLeft(p);
+		splay(q);
+		int C = detachRight(q);
+		splay(p);
+		int B = detachRight(p);
+		splay(q);
+		detachLeft(q);
+		join(A, C);
+		freeNode(p);
+		freeNode(q);
+	}
+
+	// 以下、非木辺の隣接リストの操作
+
+	private void addAdjacent(int i, int v, int e) {
+		int index = i * size + v;
+		if (adjacent[index] == null) adjacent[index] = new int[4];
+		else if (adjacentSize[index] == adjacent[index].length) adjacent[index] = Arrays.copyOf(adjacent[index], adjacentSize[index] << 1);
+		position[e << 1 | (from[e] == v ? 0 : 1)] = adjacentSize[index];
+		adjacent[index][adjacentSize[index]++] = e;
+		if (adjacentSize[index] == 1) setFlag(vertex(i, v), 2, true);
+	}
+
+	private void removeAdjacent(int i, int v, int e) {
+		int index = i * size + v, p = position[e << 1 | (from[e] == v ? 0 : 1)];
+		int last = adjacent[index][--adjacentSize[index]];
+		adjacent[index][p] = last;
+		position[last << 1 | (from[last] == v ? 0 : 1)] = p;
+		if (adjacentSize[index] == 0) setFlag(vertex(i, v), 2, false);
+	}
+
+	private int newEdge(int u, int v) {
+		int e;
+		if (freeEdges > 0) e = freeEdge[--freeEdges];
+		else {
+			if (edges == from.length) {
+				int capacity = edges + (edges >> 1);
+				from = Arrays.copyOf(from, capacity);
+				to = Arrays.copyOf(to, capacity);
+				level = Arrays.copyOf(level, capacity);
+				isTree = Arrays.copyOf(isTree, capacity);
+				position = Arrays.copyOf(position, capacity << 1);
+				arc = Arrays.copyOf(arc, capacity * levels << 1);
+			}
+			e = edges++;
+		}
+		from[e] = u;
+		to[e] = v;
+		level[e] = 0;
+		isTree[e] = false;
+		return e;
+	}
+
+	private void freeEdge(int e) {
+		if (freeEdges == freeEdge.length) freeEdge = Arrays.copyOf(freeEdge, freeEdges << 1);
+		freeEdge[freeEdges++] = e;
+	}
+
+	private static long key(int u, int v, int size) {
+		return u < v ? (long)u * size + v : (long)v * size + u;
+	}
+
+	private int slot(long key) {
+		return (int)(key * 0x9E3779B97F4A7C15L >>> edgeTableShift);
+	}
+
+	private int findEdge(long key) { // 辺が格納されている場所、無ければ-1
+		for (int i = slot(key), mask = edgeTable.length - 1;edgeTable[i] >= 0;i = i + 1 & mask) {
+			int e = edgeTable[i];
+			if (key(from[e], to[e], size) == key) return i;
+		}
+		return -1;
+	}
+
+	private void putEdge(int e) {
+		if (++ edgeTableSize << 1 > edgeTable.length) { // 負荷率を1/2以下に保つ
+			int[] old = edgeTable;
+			edgeTable = new int[old.length << 1];
+			Arrays.fill(edgeTable, -1);
+			-- edgeTableShift;
+			for (int f : old) if (f >= 0) insertEdge(f);
+		}
+		insertEdge(e);
+	}
+
+	private void insertEdge(int e) {
+		int mask = edgeTable.length - 1, i = slot(key(from[e], to[e], size));
+		while (edgeTable[i] >= 0) i = i + 1 & mask;
+		edgeTable[i] = e;
+	}
+
+	private void removeEdge(int i) { // 場所iの辺を取り除き、後続の辺を前に詰める
+		int mask = edgeTable.length - 1;
+		edgeTable[i] = -1;
+		-- edgeTableSize;
+		for (int j = i + 1 & mask;edgeTable[j] >= 0;j = j + 1 & mask) {
+			int e = edgeTable[j], k = slot(key(from[e], to[e], size));
+			if (i < j ? i < k && k <= j : i < k || k <= j) continue; // 本来の場所からjまでの間に空きが無いので、そのままで良い
+			edgeTable[i] = e;
+			edgeTable[j] = -1;
+			i = j;
+		}
+	}
+
+	private void checkVertex(int v) {
+		if (v < 0 || v >= size) throw new IndexOutOfBoundsException("out of bounds: " + v);
+	}
+
+	/**
+	 * 頂点uと頂点vを結ぶ辺を追加します。<br>
+	 * 計算量はならしO(log^2N)です。
+	 * @param u 辺の端点
+	 * @param v 辺の端点
+	 * @return 辺を追加したならtrue、既に辺が存在するか自己ループならfalse
+	 */
+	public boolean link(int u, int v) {
+		checkVertex(u);
+		checkVertex(v);
+		if (u == v) return false;
+		if (findEdge(key(u, v, size)) >= 0) return false;
+		int e = newEdge(u, v);
+		putEdge(e);
+		if (connected(vertex(0, u), vertex(0, v))) {
+			addAdjacent(0, u, e);
+			addAdjacent(0, v, e);
+		} else {
+			isTree[e] = true;
+			linkTree(e, 0);
+			-- union;
+		}
+		return true;
+	}
+
+	/**
+	 * 頂点uと頂点vを結ぶ辺を削除します。<br>
+	 * 計算量はならしO(log^2N)です。
+	 * @param u 辺の端点
+	 * @param v 辺の端点
+	 * @return 辺を削除したならtrue、辺が存在しなければfalse
+	 */
+	public boolean cut(int u, int v) {
+		checkVertex(u);
+		checkVertex(v);
+		int index = findEdge(key(u, v, size));
+		if (index < 0) return false;
+		int e = edgeTable[index], l = level[e];
+		removeEdge(index);
+		freeEdge(e);
+		if (!isTree[e]) {
+			removeAdjacent(l, u, e);
+			removeAdjacent(l, v, e);
+			return true;
+		}
+		for (int i = 0;i <= l;++ i) cutTree(e, i);
+		for (int i = l;i >= 0;-- i) if (replace(u, v, i)) return true; // 削除した辺は再利用されるまで参照されない
+		++ union;
+		return true;
+	}
+
+	private boolean replace(int u, int v, int i) { // レベルiで、uとvを再び繋ぐ辺を探す
+		int a = vertex(i, u), b = vertex(i, v);
+		splay(a);
+		int sizeA = vertexSize[a];
+		splay(b);
+		if (sizeA > vertexSize[b]) a = b; // 小さい方の木を調べる
+		while (true) { // レベルiの木辺をレベルi+1に上げる
+			splay(a);
+			if (treeCount[a] == 0) break;
+			int x = findFlag(a, 1), e = edgeOf[x];
+			setFlag(x, 1, false);
+			level[e] = i + 1;
+			linkTree(e, i + 1);
+		}
+		while (true) { // レベルiの非木辺を調べる
+			splay(a);
+			if (nonTreeCount[a] == 0) return false;
+			int w = findFlag(a, 2) - 1 - i * size, index = i * size + w;
+			while (adjacentSize[index] > 0) {
+				int e = adjacent[index][adjacentSize[index] - 1], other = from[e] == w ? to[e] : from[e];
+				removeAdjacent(i, from[e], e);
+				removeAdjacent(i, to[e], e);
+				if (connected(a, vertex(i, other))) { // 同じ木の中の辺なので、レベルを上げる
+					level[e] = i + 1;
+					addAdjacent(i + 1, from[e], e);
+					addAdjacent(i + 1, to[e], e);
+				} else { // 代わりの辺が見つかった
+					isTree[e] = true;
+					for (int j = 0;j <= i;++ j) linkTree(e, j);
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 指定した2個の頂点が連結か判定します。<br>
+	 * 計算量はならしO(logN)です。
+	 * @param u 判定したい頂点
+	 * @param v 判定したい頂点
+	 * @return uとvが連結ならばtrue
+	 */
+	public boolean isUnion(int u, int v) {
+		checkVertex(u);
+		checkVertex(v);
+		return connected(vertex(0, u), vertex(0, v));
+	}
+
+	/**
+	 * 各iについて、頂点u[i]と頂点v[i]が連結か判定します。
+	 * @param u 判定したい頂点
+	 * @param v 判定したい頂点
+	 * @return i番目の要素がu[i]とv[i]が連結であるかであるような配列
+	 */
+	public boolean[] isUnion(int[] u, int[] v) {
+		if (u.length != v.length) throw new IllegalArgumentException("length is different: " + u.length + ", " + v.length);
+		boolean[] ret = new boolean[u.length];
+		for (int i = 0;i < u.length;++ i) ret[i] = isUnion(u[i], v[i]);
+		return ret;
+	}
+
+	/**
+	 * 指定した頂点を含む連結成分の要素数を求めます。<br>
+	 * 計算量はならしO(logN)です。
+	 * @param n 要素数を求めたい連結成分の要素
+	 * @return 頂点nを含む連結成分の要素数
+	 */
+	public int getSize(int n) {
+		checkVertex(n);
+		int x = vertex(0, n);
+		splay(x);
+		return vertexSize[x];
+	}
+
+	/**
+	 * 各iについて、頂点n[i]を含む連結成分の要素数を求めます。
+	 * @param n 要素数を求めたい連結成分の要素
+	 * @return i番目の要素が頂点n[i]を含む連結成分の要素数であるような配列
+	 */
+	public int[] getSize(int[] n) {
+		int[] ret = new int[n.length];
+		for (int i = 0;i < n.length;++ i) ret[i] = getSize(n[i]);
+		return ret;
+	}
+
+	/**
+	 * 連結成分の個数を求めます。<br>
+	 * 計算量はO(1)です。
+	 * @return 連結成分の個数
+	 */
+	public int getUnion() {
+		return union;
+	}
 }
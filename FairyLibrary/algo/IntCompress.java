@@ -0,0 +1,120 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 座標圧縮をするライブラリです。<br>
+ * 値は整列して重複を取り除いたintの配列で管理し、座圧後の値は分岐を用いない二分探索で求めます。
+ * 値の上位bitで要素数程度のバケットに分けておき、二分探索はそのバケットの中でのみ行います。<br>
+ * 整列には{@link Arrays#parallelSort(int[])}を、{@link #zipAll(int[])}には{@link Arrays#parallelSetAll(int[], java.util.function.IntUnaryOperator)}を用いるため、
+ * 要素数が多い場合は並列に処理されます。<br>
+ * これは、{@link CompressTree}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ *
+ */
+public class IntCompress {
+	private final int[] unzip;
+	private final int[] start; // 上位bitがbであるような値は、unzip[start[b]]からunzip[start[b+1]-1]まで
+	private final int shift;
+
+	/**
+	 * datを用いて座圧します。<br>
+	 * datは書き換えられません。
+	 * @param dat 座圧する値
+	 */
+	public IntCompress(int[] dat) {
+		int[] sorted = Arrays.copyOf(dat, dat.length);
+		Arrays.parallelSort(sorted);
+		int size = 0;
+		for (int i = 0;i < sorted.length;++ i) if (size == 0 || sorted[size - 1] != sorted[i]) sorted[size++] = sorted[i];
+		unzip = size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+		if (size == 0) {
+			start = null;
+			shift = 0;
+			return;
+		}
+		int range = unzip[size - 1] - unzip[0]; // 符号なし整数として扱う
+		shift = Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(range) - (31 - Integer.numberOfLeadingZeros(size)));
+		int buckets = (range >>> shift) + 1;
+		start = new int[buckets + 1];
+		for (int i = 0, b = 0;b <= buckets;++ b) {
+			while (i < size && unzip[i] - unzip[0] >>> shift < b) ++ i;
+			start[b] = i;
+		}
+	}
+
+	private int floor(int dat) { // unzip[ret] <= datを満たす最大のret、存在しなければ0
+		if (unzip.length == 0 || dat <= unzip[0]) return 0;
+		if (dat >= unzip[unzip.length - 1]) return unzip.length - 1;
+		int bucket = dat - unzip[0] >>> shift, base = Math.max(0, start[bucket] - 1);
+		for (int length = start[bucket + 1] - base;length > 1;) {
+			int half = length >>> 1;
+			base = unzip[base + half] <= dat ? base + half : base; // 条件分岐ではなく条件付き移動になる
+			length -= half;
+		}
+		return base;
+	}
+
+	/**
+	 * 座圧した値を求めます。
+	 * @param dat 座圧前の値
+	 * @return 座圧後の値
+	 * @throws NoSuchElementException datが座圧した値に含まれない場合
+	 */
+	public int zip(int dat) {
+		int ret = floor(dat);
+		if (unzip.length == 0 || unzip[ret] != dat) throw new NoSuchElementException(String.valueOf(dat));
+		return ret;
+	}
+
+	/**
+	 * 各要素を座圧した値を求めます。<br>
+	 * 要素数が多い場合は並列に処理されます。
+	 * @param dat 座圧前の値
+	 * @return i番目の要素がdat[i]を座圧した値であるような配列
+	 * @throws NoSuchElementException datのいずれかの要素が座圧した値に含まれない場合
+	 */
+	public int[] zipAll(int[] dat) {
+		int[] ret = new int[dat.length];
+		Arrays.parallelSetAll(ret, i -> zip(dat[i]));
+		return ret;
+	}
+
+	/**
+	 * dat以下で最大の値を座圧した値を求めます。
+	 * @param dat 座圧前の値
+	 * @return 座圧後の値、dat以下の値が存在しなければ-1
+	 */
+	public int floorZip(int dat) {
+		int ret = floor(dat);
+		return unzip.length == 0 || unzip[ret] > dat ? -1 : ret;
+	}
+
+	/**
+	 * dat以上で最小の値を座圧した値を求めます。
+	 * @param dat 座圧前の値
+	 * @return 座圧後の値、dat以上の値が存在しなければ{@link #size()}
+	 */
+	public int ceilingZip(int dat) {
+		int ret = floorZip(dat);
+		return ret >= 0 && unzip[ret] == dat ? ret : ret + 1;
+	}
+
+	/**
+	 * 座圧前の値を求めます。
+	 * @param index 座圧後の値
+	 * @return 座圧前の値
+	 */
+	public int unzip(int index) {
+		return unzip[index];
+	}
+
+	/**
+	 * 要素数を求めます。
+	 * @return ユニークな要素数
+	 */
+	public int size() {
+		return unzip.length;
+	}
+}
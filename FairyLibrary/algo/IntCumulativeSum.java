@@ -0,0 +1,203 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.IntAbelian;
+import com._31536000.math.algebraic.group.IntInvertible;
+import com._31536000.math.algebraic.group.IntMonoid;
+
+/**
+ * 累積和を計算します。<br>
+ * 累積和は必要になった時に、必要になった所まで計算します。
+ * 左からの累積和しか使わない場合は右からの累積和の配列を確保せず、その逆も同様です。<br>
+ * 末尾に要素を追加することができ、左からの累積和は追加された分だけ計算を続けます。<br>
+ * これは、{@link CumulativeSum}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ *
+ */
+public class IntCumulativeSum {
+	private int[] data;
+	private int size;
+	private boolean shared; // dataが呼び出し元の配列を参照しているならtrue
+	private int[] leftSum, rightSum; // 未計算ならnull
+	private int computed; // leftSum[0, computed]は計算済み
+	private final IntMonoid operate;
+	private final IntInvertible inverse;
+	static final IntAbelian ADD = new IntAbelian() {
+		@Override
+		public int applyAsInt(int left, int right) {
+			return left + right;
+		}
+
+		@Override
+		public int identityAsInt() {
+			return 0;
+		}
+
+		@Override
+		public int inverseAsInt(int element) {
+			return -element;
+		}
+	};
+
+	private IntCumulativeSum(int[] dat, IntMonoid operate) {
+		this.operate = operate;
+		inverse = operate instanceof IntInvertible ? (IntInvertible)operate : null;
+		data = dat;
+		size = dat.length;
+		shared = true;
+	}
+
+	private void rangeCheck(int index) {
+		if (index < 0 || index > size) throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+	}
+
+	private void rangeCheck(int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is out of bounds: " + size);
+	}
+
+	private int[] leftSum(int index) { // leftSum[0, index]を計算して返す
+		if (leftSum == null) {
+			leftSum = new int[Math.max(index, 1) + 1];
+			leftSum[0] = operate.identityAsInt();
+		} else if (leftSum.length <= index) leftSum = Arrays.copyOf(leftSum, Math.max(index + 1, leftSum.length + (leftSum.length >> 1)));
+		for (;computed < index;++ computed) leftSum[computed + 1] = operate.applyAsInt(leftSum[computed], data[computed]);
+		return leftSum;
+	}
+
+	private int[] rightSum() {
+		if (rightSum == null) {
+			rightSum = new int[size + 1];
+			rightSum[size] = operate.identityAsInt();
+			for (int i = size - 1;i >= 0;-- i) rightSum[i] = operate.applyAsInt(data[i], rightSum[i + 1]);
+		}
+		return rightSum;
+	}
+
+	/**
+	 * 末尾に値を追加します。<br>
+	 * 右からの累積和は、次に必要になった時に計算し直します。
+	 * @param value 追加する値
+	 */
+	public void add(int value) {
+		if (shared || size == data.length) {
+			data = Arrays.copyOf(data, Math.max(size + 1, size + (size >> 1)));
+			shared = false;
+		}
+		data[size++] = value;
+		rightSum = null;
+	}
+
+	/**
+	 * 末尾に配列の値を順に追加します。<br>
+	 * 右からの累積和は、次に必要になった時に計算し直します。
+	 * @param values 追加する値
+	 */
+	public void addAll(int[] values) {
+		if (shared || size + values.length > data.length) {
+			data = Arrays.copyOf(data, Math.max(size + values.length, size + (size >> 1)));
+			shared = false;
+		}
+		System.arraycopy(values, 0, data, size, values.length);
+		size += values.length;
+		rightSum = null;
+	}
+
+	/**
+	 * 保持している値の個数を返します。
+	 * @return 値の個数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * [0, index)の値の合計を返します。
+	 * @param index 累積和の右辺
+	 * @return [0, index)の値の合計
+	 */
+	public int getSumAsInt(int index) {
+		rangeCheck(index);
+		return leftSum(index)[index];
+	}
+
+	/**
+	 * [index, size)の値の合計を返します。
+	 * @param index 累積和の左辺
+	 * @return [index, size)の値の合計
+	 */
+	public int getLastSumAsInt(int index) {
+		rangeCheck(index);
+		return rightSum()[index];
+	}
+
+	/**
+	 * [0, index) + (index, size)の値の合計を返します。
+	 * @param index 除外したい値
+	 * @return indexを除く全区間の値の合計
+	 */
+	public int getAvoidSumAsInt(int index) {
+		return getAvoidSumAsInt(index, index + 1);
+	}
+
+	/**
+	 * [0, left) + [right, size)の値の合計を返します。
+	 * @param left 除外する区間の左閉区間
+	 * @param right 除外する区間の右開区間
+	 * @return [left, right)を除く全区間の値の合計
+	 */
+	public int getAvoidSumAsInt(int left, int right) {
+		rangeCheck(left, right);
+		return operate.applyAsInt(getSumAsInt(left), getLastSumAsInt(right));
+	}
+
+	/**
+	 * 区間[left, right)の値の合計を返します。<br>
+	 * 演算が逆元を持たない場合、leftが0であるかrightがsizeである必要があります。
+	 * @param left 左閉区間
+	 * @param right 右開区間
+	 * @return 区間[left, right)の値の合計
+	 */
+	public int getSumAsInt(int left, int right) {
+		rangeCheck(left, right);
+		if (left == 0) return getSumAsInt(right);
+		if (inverse != null) return operate.applyAsInt(inverse.inverseAsInt(getSumAsInt(left)), getSumAsInt(right));
+		if (right == size) return getLastSumAsInt(left);
+		throw new UnsupportedOperationException("operate is not invertible.");
+	}
+
+	/**
+	 * 累積和を構築します。<br>
+	 * 配列はコピーされずに参照されるため、構築後に書き換えてはいけません。
+	 * @param dat 構築する配列
+	 * @param operate 結合法則
+	 * @return 累積和
+	 */
+	public static IntCumulativeSum create(int[] dat, IntMonoid operate) {
+		return new IntCumulativeSum(dat, operate);
+	}
+
+	/**
+	 * 和に関する累積和を構築します。<br>
+	 * 配列はコピーされずに参照されるため、構築後に書き換えてはいけません。
+	 * @param dat 構築する配列
+	 * @return 累積和
+	 */
+	public static IntCumulativeSum create(int[] dat) {
+		return new IntCumulativeSum(dat, ADD);
+	}
+
+	/**
+	 * 値を持たない累積和を構築します。<br>
+	 * 値は{@link #add(int)}で末尾に追加します。
+	 * @param operate 結合法則
+	 * @return 累積和
+	 */
+	public static IntCumulativeSum create(IntMonoid operate) {
+		return new IntCumulativeSum(new int[0], operate);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(leftSum(size), size + 1));
+	}
+}
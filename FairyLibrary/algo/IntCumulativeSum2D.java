@@ -0,0 +1,94 @@
+package com._31536000.algo;
+
+import com._31536000.math.algebraic.group.IntAbelian;
+
+/**
+ * 二次元累積和を計算します。<br>
+ * 累積和は(H+1)(W+1)要素の一次元配列で管理し、長方形領域の合計をO(1)で求めることができます。<br>
+ * これは、{@link CumulativeSum}を二次元に拡張し、プリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ *
+ */
+public class IntCumulativeSum2D {
+	private final int[] sum; // sum[i * (W + 1) + j]は[0, i)×[0, j)の合計
+	private final int H, W;
+	private final IntAbelian operate;
+
+	private IntCumulativeSum2D(int[][] dat, IntAbelian operate) {
+		this.operate = operate;
+		H = dat.length;
+		W = H == 0 ? 0 : dat[0].length;
+		sum = new int[(H + 1) * (W + 1)];
+		int identity = operate.identityAsInt();
+		if (identity != 0) java.util.Arrays.fill(sum, identity);
+		for (int i = 0;i < H;++ i) {
+			if (dat[i].length != W) throw new IllegalArgumentException("dat is not rectangular.");
+			int row = identity;
+			for (int j = 0;j < W;++ j) { // 行の累積和に、上の行までの累積和を足す
+				row = operate.applyAsInt(row, dat[i][j]);
+				sum[(i + 1) * (W + 1) + j + 1] = operate.applyAsInt(sum[i * (W + 1) + j + 1], row);
+			}
+		}
+	}
+
+	/**
+	 * 行数を返します。
+	 * @return 行数
+	 */
+	public int height() {
+		return H;
+	}
+
+	/**
+	 * 列数を返します。
+	 * @return 列数
+	 */
+	public int width() {
+		return W;
+	}
+
+	/**
+	 * [0, i)×[0, j)の値の合計を返します。
+	 * @param i 累積和の下辺
+	 * @param j 累積和の右辺
+	 * @return [0, i)×[0, j)の値の合計
+	 */
+	public int getSumAsInt(int i, int j) {
+		if (i < 0 || i > H || j < 0 || j > W) throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is out of bounds: " + H + "×" + W);
+		return sum[i * (W + 1) + j];
+	}
+
+	/**
+	 * 長方形領域[top, bottom)×[left, right)の値の合計を返します。
+	 * @param top 上閉区間
+	 * @param left 左閉区間
+	 * @param bottom 下開区間
+	 * @param right 右開区間
+	 * @return [top, bottom)×[left, right)の値の合計
+	 */
+	public int getSumAsInt(int top, int left, int bottom, int right) {
+		if (top < 0 || top > bottom || bottom > H || left < 0 || left > right || right > W) throw new IndexOutOfBoundsException("[" + top + ", " + bottom + ")×[" + left + ", " + right + ") is out of bounds: " + H + "×" + W);
+		int plus = operate.applyAsInt(getSumAsInt(bottom, right), getSumAsInt(top, left));
+		int minus = operate.applyAsInt(getSumAsInt(top, right), getSumAsInt(bottom, left));
+		return operate.applyAsInt(plus, operate.inverseAsInt(minus));
+	}
+
+	/**
+	 * 二次元累積和を構築します。
+	 * @param dat 構築する配列
+	 * @param operate 演算
+	 * @return 二次元累積和
+	 */
+	public static IntCumulativeSum2D create(int[][] dat, IntAbelian operate) {
+		return new IntCumulativeSum2D(dat, operate);
+	}
+
+	/**
+	 * 和に関する二次元累積和を構築します。
+	 * @param dat 構築する配列
+	 * @return 二次元累積和
+	 */
+	public static IntCumulativeSum2D create(int[][] dat) {
+		return new IntCumulativeSum2D(dat, IntCumulativeSum.ADD);
+	}
+}
@@ -0,0 +1,85 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.IntAssociative;
+
+/**
+ * Disjoint Sparse Tableです。<br>
+ * 値の更新を行わない列に対して、前計算O(NlogN)、範囲取得をO(1)でできるデータ構造です。<br>
+ * 演算は結合法則を満たせばよく、単位元や冪等性は必要ありません。<br>
+ * これは、{@link DisjointSparseTable}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ */
+public class IntDisjointSparseTable {
+	private final IntAssociative operate;
+	private final int[] table; // table[k * size + i]は、iを含む長さ2^kの区間の中央からiまでの合計
+	private final int size;
+
+	/**
+	 * arrayを値とするDisjoint Sparse Tableを構築します。<br>
+	 * 計算量はO(NlogN)です。
+	 * @param array 値
+	 * @param operate 演算
+	 */
+	public IntDisjointSparseTable(int[] array, IntAssociative operate) {
+		if (array == null || array.length < 1 || operate == null) throw new IllegalArgumentException();
+		this.operate = operate;
+		size = array.length;
+		int log = size <= 1 ? 1 : 32 - Integer.numberOfLeadingZeros(size - 1);
+		table = new int[log * size];
+		System.arraycopy(array, 0, table, 0, size); // 0段目は値そのもの
+		for (int k = 1;k < log;++ k) {
+			int offset = k * size, half = 1 << k;
+			for (int mid = half;mid < size + half;mid += half << 1) {
+				int m = Math.min(mid, size);
+				int sum = array[m - 1];
+				table[offset + m - 1] = sum;
+				for (int i = m - 2;i >= mid - half;-- i) table[offset + i] = sum = operate.applyAsInt(array[i], sum); // 中央から左へ
+				if (mid >= size) continue;
+				table[offset + mid] = sum = array[mid];
+				for (int i = mid + 1, end = Math.min(mid + half, size);i < end;++ i) table[offset + i] = sum = operate.applyAsInt(sum, array[i]); // 中央から右へ
+			}
+		}
+	}
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public int getAsInt(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return table[index];
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。<br>
+	 * 単位元が無いため、区間は空であってはいけません。<br>
+	 * 計算量はO(1)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の合計
+	 */
+	public int getAsInt(int left, int right) {
+		if (left < 0 || left >= right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+		if (left == -- right) return table[left];
+		int offset = (31 - Integer.numberOfLeadingZeros(left ^ right)) * size; // leftとrightが初めて異なる区間に分かれる段
+		return operate.applyAsInt(table[offset + left], table[offset + right]);
+	}
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public int[] toArrayAsInt() {
+		return Arrays.copyOf(table, size);
+	}
+}
@@ -0,0 +1,132 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.IntAbelian;
+
+/**
+ * 二次元Fenwick Treeです。<br>
+ * H×Wの二次元配列に対して、１点更新をO(logHlogW)、長方形領域の合計の取得をO(logHlogW)でできるデータ構造です。<br>
+ * 値は長さ(H+1)(W+1)の一次元配列で管理されます。<br>
+ * これは、{@link FenwickTree2D}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ */
+public class IntFenwickTree2D {
+	private final IntAbelian group;
+	private final int[] array; // array[i * (width + 1) + j]は1-indexedで(i, j)を担当する
+	private final int height, width;
+
+	/**
+	 * 全ての値が単位元であるようなH×Wの二次元Fenwick Treeを構築します。
+	 * @param H 行数
+	 * @param W 列数
+	 * @param group 演算
+	 */
+	public IntFenwickTree2D(int H, int W, IntAbelian group) {
+		if (H < 0 || W < 0 || group == null) throw new IllegalArgumentException();
+		this.group = group;
+		height = H;
+		width = W;
+		array = new int[(H + 1) * (W + 1)];
+		Arrays.fill(array, group.identityAsInt());
+	}
+
+	/**
+	 * datを初期値とする二次元Fenwick Treeを構築します。<br>
+	 * 計算量はO(HW)です。
+	 * @param dat 初期値、全ての行の長さが等しいこと
+	 * @param group 演算
+	 */
+	public IntFenwickTree2D(int[][] dat, IntAbelian group) {
+		this(dat.length, dat.length == 0 ? 0 : dat[0].length, group);
+		int W = width + 1;
+		for (int i = 0;i < height;++ i) {
+			if (dat[i].length != width) throw new IllegalArgumentException("dat is not rectangular.");
+			System.arraycopy(dat[i], 0, array, (i + 1) * W + 1, width);
+		}
+		for (int i = 1;i <= height;++ i) { // 行方向に構築する
+			for (int j = 1, k;j <= width;++ j) if ((k = j + (j & -j)) <= width) array[i * W + k] = group.applyAsInt(array[i * W + k], array[i * W + j]);
+		}
+		for (int i = 1, k;i <= height;++ i) { // 列方向に構築する
+			if ((k = i + (i & -i)) > height) continue;
+			for (int j = 1;j <= width;++ j) array[k * W + j] = group.applyAsInt(array[k * W + j], array[i * W + j]);
+		}
+	}
+
+	/**
+	 * 行数を返します。
+	 * @return 行数
+	 */
+	public int height() {
+		return height;
+	}
+
+	/**
+	 * 列数を返します。
+	 * @return 列数
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * 指定した場所の値を、datに置換します。
+	 * @param i 更新する行
+	 * @param j 更新する列
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public int setAsInt(int i, int j, int dat) {
+		int ret = getAsInt(i, j);
+		applyAsInt(i, j, group.applyAsInt(group.inverseAsInt(ret), dat));
+		return ret;
+	}
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、(i, j)の値は元の値にdatを演算した値となります。
+	 * @param i 更新する行
+	 * @param j 更新する列
+	 * @param dat 更新するデータ
+	 */
+	public void applyAsInt(int i, int j, int dat) {
+		if (i < 0 || i >= height || j < 0 || j >= width) throw new IndexOutOfBoundsException("out of bounds: (" + i + ", " + j + ")");
+		for (int x = i + 1;x <= height;x += x & -x) {
+			for (int y = j + 1, offset = x * (width + 1);y <= width;y += y & -y) array[offset + y] = group.applyAsInt(array[offset + y], dat);
+		}
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param i 取得したい行
+	 * @param j 取得したい列
+	 * @return その場所の値
+	 */
+	public int getAsInt(int i, int j) {
+		return getAsInt(i, j, i + 1, j + 1);
+	}
+
+	private int sum(int i, int j) { // [0, i)×[0, j)の合計
+		int ret = group.identityAsInt();
+		for (int x = i;x > 0;x -= x & -x) {
+			for (int y = j, offset = x * (width + 1);y > 0;y -= y & -y) ret = group.applyAsInt(ret, array[offset + y]);
+		}
+		return ret;
+	}
+
+	/**
+	 * 指定した長方形領域の合計を取得します。<br>
+	 * 計算量はO(logHlogW)です。
+	 * @param top 領域の上端(これを含む)
+	 * @param left 領域の左端(これを含む)
+	 * @param bottom 領域の下端(これを含まない)
+	 * @param right 領域の右端(これを含まない)
+	 * @return [top, bottom)×[left, right)の合計
+	 */
+	public int getAsInt(int top, int left, int bottom, int right) {
+		if (top < 0 || top > bottom || bottom > height || left < 0 || left > right || right > width) throw new IndexOutOfBoundsException("[" + top + ", " + bottom + ")×[" + left + ", " + right + ") is undefined.");
+		if (top == bottom || left == right) return group.identityAsInt();
+		int plus = group.applyAsInt(sum(bottom, right), sum(top, left));
+		int minus = group.applyAsInt(sum(top, right), sum(bottom, left));
+		return group.applyAsInt(plus, group.inverseAsInt(minus));
+	}
+}
@@ -0,0 +1,70 @@
+package com._31536000.algo;
+
+/**
+ * Mo's Algorithmを用いて、クエリ平方分割に対する問題を解くことができます。<br>
+ * このアルゴリズムを実行する時には、IntMoを継承したデータ構造に対してcalcを呼ぶことで実行を行います。<br>
+ * IntMoを継承するデータ構造は次の操作を行うことができなければなりません。
+ * <ul>
+ * 	<li>{@link #add(int)} i番目の要素を追加します。</li>
+ * 	<li>{@link #remove(int)} i番目の要素を削除します。</li>
+ * 	<li>{@link #getAsInt(int, int)} 現在の区間における要素を返します。ここで、この区間は[l, r)に等しいです。</li>
+ * </ul>
+ * クエリの答えは呼び出し元が与えた配列に書き込まれ、calcの実行中にクエリ毎のオブジェクトを生成することはありません。<br>
+ * クエリを処理する順番は、{@link MoOrder}で求めたものを指定することができます。<br>
+ * これは、{@link Mo}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ */
+public interface IntMo {
+	/**
+	 * i番目の要素を追加します。
+	 * @param i 追加する要素のindex
+	 */
+	void add(int i);
+	/**
+	 * i番目の要素を削除します。
+	 * @param i 削除する要素のindex
+	 */
+	void remove(int i);
+	/**
+	 * 現在、このデータ構造が保持している値を返します。<br>
+	 * これは区間[l, r)が保持している値に等しいです。
+	 * @param l 現在の区間の左端(これを含む)
+	 * @param r 現在の区間の右端(これを含まない)
+	 * @return 区間[l, r)が保持している値
+	 */
+	int getAsInt(int l, int r);
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを求めます。<br>
+	 * クエリはHilbert曲線に沿った順番で処理されます。
+	 * @param mo 用いるデータ構造
+	 * @param l 各クエリの左端(これを含む)
+	 * @param r 各クエリの右端(これを含まない)
+	 * @param answer 各クエリに対する答えを書き込む配列
+ * @complexity addとremoveにかかる計算量がf(x)、getAsIntにかかる計算量がg(x)であり、区間長がN、クエリ数がQの場合における計算量はO(Q(logN + g(x)) + Nsqrt(Q)f(x))
+	 */
+	static void calc(IntMo mo, int[] l, int[] r, int[] answer) {
+		calc(mo, l, r, answer, MoOrder.hilbert(l, r));
+	}
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを求めます。<br>
+	 * クエリはorderの順番で処理されます。
+	 * @param mo 用いるデータ構造
+	 * @param l 各クエリの左端(これを含む)
+	 * @param r 各クエリの右端(これを含まない)
+	 * @param answer 各クエリに対する答えを書き込む配列
+	 * @param order 処理する順に並べたクエリの番号
+ * @complexity addとremoveにかかる計算量がf(x)、getAsIntにかかる計算量がg(x)であり、クエリ数がQ、ポインタの移動量がMの場合における計算量はO(Qg(x) + Mf(x))
+	 */
+	static void calc(IntMo mo, int[] l, int[] r, int[] answer, int[] order) {
+		if (l.length != r.length || l.length != answer.length || l.length != order.length) throw new IllegalArgumentException("length is different");
+		if (order.length == 0) return;
+		int left = l[order[0]], right = left;
+		for (int i : order) {
+			while(left > l[i]) mo.add(-- left);
+			while(right < r[i]) mo.add(right ++);
+			while(left < l[i]) mo.remove(left ++);
+			while(right > r[i]) mo.remove(-- right);
+			answer[i] = mo.getAsInt(left, right);
+		}
+	}
+}
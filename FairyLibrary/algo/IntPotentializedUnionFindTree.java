@@ -0,0 +1,151 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.IntAbelian;
+import com._31536000.math.algebraic.group.Associative;
+
+/**
+ * ポテンシャル付きの素集合データ構造です。<br>
+ * 連結成分の個数や大きさ、その距離を取得することができます。<br>
+ * これは、{@link PotentializedUnionFindTree}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ *
+ * @param <T> 連結成分と一緒にマージしたい要素があれば
+ */
+public class IntPotentializedUnionFindTree<T> {
+	private int[] parent; // 負ならばデータ数、正ならば親のindex
+	private T[] data;
+	private int[] potential;
+	private Associative<T> merge;
+	private IntAbelian distance;
+
+	/**
+	 * size個の頂点を持つ森を作ります。
+	 * @param size 頂点数
+	 */
+	public IntPotentializedUnionFindTree(int size, IntAbelian potential) {
+		this.parent = new int[size];
+		Arrays.fill(this.parent, -1);
+		distance = potential;
+		this.potential = new int[size];
+		if (potential.identityAsInt() != 0) Arrays.fill(this.potential, potential.identityAsInt());
+	}
+
+	/**
+	 * 初期状態がdataで定義される森を作ります。
+	 * @param data 各頂点の初期状態
+	 * @param merge 連結時にマージする計算式
+	 */
+	public IntPotentializedUnionFindTree(T[] data, Associative<T> merge, IntAbelian weight) {
+		this(data.length, weight);
+		this.data = data;
+		this.merge = merge;
+	}
+
+
+	/**
+	 * 初期状態がdataで定義される森を作ります。
+	 * @param data 各頂点の初期状態
+	 */
+	@SuppressWarnings("unchecked")
+	public IntPotentializedUnionFindTree(T[] data, IntAbelian weight) {
+		this(data, (Associative<T>) data[0], weight);
+	}
+
+	/**
+	 * その頂点がどの頂点を根とする連結成分に属しているかを求めます。<br>
+	 * 経路圧縮を行い、各頂点のポテンシャルを根からの差に付け替えます。計算量はO(logN)です。
+	 * @param n 根を求めたい頂点
+	 * @return 根となっている頂点
+	 */
+	public int find(int n) {
+		int p = parent[n];
+		if (p < 0) return n;
+		int root = find(p);
+		if (p != root) { // potential[p]は根からの差になっている
+			potential[n] = distance.applyAsInt(potential[n], potential[p]);
+			parent[n] = root;
+		}
+		return root;
+	}
+
+	/**
+	 * 指定した頂点同士をlからrへ繋ぐように連結します。<br>
+	 * この操作により、rのポテンシャルはlのポテンシャルにwを演算した値となります。<br>
+	 * 計算量はO(logN)です。
+	 * @param l 連結したい頂点
+	 * @param r 連結したい頂点
+	 * @param w 繋ぐ辺の重み
+	 * @return この関数によって連結されたならtrue、既に連結だったならfalse
+	 */
+	public boolean unite(int l, int r, int w) {
+		int rootL = find(l), rootR = find(r);
+		if (rootL == rootR) return false;
+		w = distance.applyAsInt(distance.applyAsInt(w, potential[l]), distance.inverseAsInt(potential[r])); // rootLからrootRへの差
+		if (parent[rootL] > parent[rootR]) { // rootRの方が大きい
+			parent[rootR] += parent[rootL]; // 大きい方へ小さい方をマージする
+			parent[rootL] = rootR;
+			if (merge != null) data[rootR] = merge.apply(data[rootR], data[rootL]);
+			potential[rootL] = distance.inverseAsInt(w);
+		} else {
+			parent[rootL] += parent[rootR]; // 大きい方へ小さい方をマージする
+			parent[rootR] = rootL;
+			if (merge != null) data[rootL] = merge.apply(data[rootL], data[rootR]);
+			potential[rootR] = w;
+		}
+		return true;
+	}
+
+	/**
+	 * 指定した2個の頂点が連結か判定します。<br>
+	 * 計算量はO(logN)です。
+	 * @param l 判定したい頂点
+	 * @param r 判定したい頂点
+	 * @return lとrが連結ならばtrue
+	 */
+	public boolean isEqual(int l, int r) {
+		return find(l) == find(r);
+	}
+
+	/**
+	 * 指定した頂点を含む連結成分の要素数を求めます。<br>
+	 * 計算量はO(logN)です。
+	 * @param n 要素数を求めたい連結成分の要素
+	 * @return 頂点nを含む連結成分の要素数
+	 */
+	public int getSize(int n) {
+		return -parent[find(n)];
+	}
+
+	/**
+	 * 2つの頂点間の差を求めます。
+	 * @param l 求めたい頂点
+	 * @param r 求めたい頂点
+	 * @return lからrへの頂点の差
+	 */
+	public int getDistanceAsInt(int l, int r) {
+		if (!isEqual(l, r)) throw new IllegalStateException("lとrは非連結です。");
+		return distance.applyAsInt(potential[r], distance.inverseAsInt(potential[l]));
+	}
+
+	/**
+	 * 指定した頂点の要素を求めます。<br>
+	 * 計算量はO(logN)です。
+	 * @param n 求めたい頂点
+	 * @return その頂点を含む連結成分の要素
+	 */
+	public T getData(int n) {
+		return data[find(n)];
+	}
+
+	/**
+	 * 連結成分の個数を求めます。<br>
+	 * 計算量はO(logN)です。
+	 * @return 連結成分の個数
+	 */
+	public int getUnion() {
+		int ret = 0;
+		for (int i : parent) if (i < 0) ++ ret;
+		return ret;
+	}
+}
@@ -0,0 +1,412 @@
+package com._31536000.algo;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import com._31536000.math.algebraic.group.IntAbelian;
+import com._31536000.math.algebraic.group.IntMonoid;
+
+/**
+ * セグメント木です。<br>
+ * １点更新をO(logN)、範囲取得をO(logN)でできるデータ構造です。<br>
+ * これは、{@link SegmentTree}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * インスタンスは{@link SegmentTree#create(int, IntMonoid)}などから生成します。
+ * @author 31536000
+ */
+public abstract class IntSegmentTree {
+
+	IntSegmentTree() {
+	}
+
+	static final class FenwickTree extends IntSegmentTree {
+		private final IntAbelian group;
+		private final int[] array;
+		private final int size;
+
+		FenwickTree(int N, IntAbelian group) {
+			size = N;
+			this.group = group;
+			array = new int[N + 1];
+			java.util.Arrays.fill(array, group.identityAsInt());
+		}
+
+		FenwickTree(int[] dat, IntAbelian group) {
+			size = dat.length;
+			this.group = group;
+			array = new int[dat.length + 1];
+			System.arraycopy(dat, 0, array, 1, dat.length);
+			for (int i = 1, j;i <= size;++ i) if ((j = i + (i & -i)) <= size) array[j] = group.applyAsInt(array[i], array[j]);
+		}
+
+		FenwickTree(int N, IntUnaryOperator dat, IntAbelian group) {
+			size = N;
+			this.group = group;
+			array = new int[N + 1];
+			for (int i = 1;i <= size;++ i) array[i] = dat.applyAsInt(i - 1);
+			for (int i = 1, j;i <= size;++ i) if ((j = i + (i & -i)) <= size) array[j] = group.applyAsInt(array[i], array[j]);
+		}
+
+		private int prefix(int index) {
+			int ret = group.identityAsInt();
+			for (;index != 0;index ^= index & -index) ret = group.applyAsInt(ret, array[index]);
+			return ret;
+		}
+
+		@Override
+		public int setAsInt(int index, int dat) {
+			int ret = getAsInt(index);
+			applyAsInt(index, group.applyAsInt(group.inverseAsInt(ret), dat));
+			return ret;
+		}
+
+		@Override
+		public void applyAsInt(int index, int dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			for (++ index;index <= size;index += index & -index) array[index] = group.applyAsInt(array[index], dat);
+		}
+
+		@Override
+		public void applyAllAsInt(int[] indices, int[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			if ((long)indices.length * (32 - Integer.numberOfLeadingZeros(size)) <= size) { // 個別に更新した方が速い
+				super.applyAllAsInt(indices, values);
+				return;
+			}
+			int[] diff = new int[size + 1]; // 差分だけでFenwickTreeを作ってから足し合わせる
+			java.util.Arrays.fill(diff, group.identityAsInt());
+			for (int i = 0;i < indices.length;++ i) {
+				if (indices[i] < 0 || indices[i] >= size) throw new IndexOutOfBoundsException("out of bounds: " + indices[i]);
+				diff[indices[i] + 1] = group.applyAsInt(diff[indices[i] + 1], values[i]);
+			}
+			for (int i = 1, j;i <= size;++ i) if ((j = i + (i & -i)) <= size) diff[j] = group.applyAsInt(diff[i], diff[j]);
+			for (int i = 1;i <= size;++ i) array[i] = group.applyAsInt(array[i], diff[i]);
+		}
+
+		@Override
+		public int getAsInt(int l, int r) {
+			if (l < 0 || l > r || r > size) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+			return group.applyAsInt(group.inverseAsInt(prefix(l)), prefix(r));
+		}
+
+		@Override
+		public int getAvoidAsInt(int left, int right) {
+			if (left < 0 || left > right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			return group.applyAsInt(group.inverseAsInt(getAsInt(left, right)), prefix(size));
+		}
+
+		@Override
+		public int binarySearch(int left, int right, IntPredicate f) {
+			if (left < 0 || left > size || right < 0 || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			if (left <= right) { // fold[left, pos)がfを満たす最大のpos
+				int pos = 0, sum = group.identityAsInt(), from = group.inverseAsInt(prefix(left));
+				for (int i = Integer.highestOneBit(size);i != 0;i >>= 1) {
+					int next = pos + i;
+					if (next > right) continue;
+					int nextSum = group.applyAsInt(sum, array[next]);
+					if (next <= left || f.test(group.applyAsInt(from, nextSum))) {
+						pos = next;
+						sum = nextSum;
+					}
+				}
+				return pos - 1;
+			}
+			// fold[pos, left)がfを満たす最小のpos
+			int to = prefix(left);
+			if (right == 0 && f.test(to)) return 0;
+			int pos = 0, sum = group.identityAsInt();
+			for (int i = Integer.highestOneBit(size);i != 0;i >>= 1) {
+				int next = pos + i;
+				if (next >= left) continue; // fold[left, left)は調べない
+				int nextSum = group.applyAsInt(sum, array[next]);
+				if (next < right || !f.test(group.applyAsInt(group.inverseAsInt(nextSum), to))) {
+					pos = next;
+					sum = nextSum;
+				}
+			}
+			return pos + 1;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	static final class MonoidSegmentTree extends IntSegmentTree {
+		private final IntMonoid group;
+		private final int[] array;
+		private final int size, leaf;
+
+		MonoidSegmentTree(int N, IntMonoid group) {
+			this.group = group;
+			size = N;
+			leaf = N == 1 ? 1 : Integer.highestOneBit(N - 1) << 1;
+			array = new int[leaf << 1];
+			java.util.Arrays.fill(array, group.identityAsInt());
+		}
+
+		MonoidSegmentTree(int[] dat, IntMonoid group) {
+			this(dat.length, group);
+			System.arraycopy(dat, 0, array, leaf, dat.length);
+			for (int i = leaf - 1;i > 0;-- i) array[i] = group.applyAsInt(array[i << 1], array[i << 1 | 1]);
+		}
+
+		MonoidSegmentTree(int N, IntUnaryOperator dat, IntMonoid group) {
+			this(N, group);
+			for (int i = 0;i < N;++ i) array[leaf | i] = dat.applyAsInt(i);
+			for (int i = leaf - 1;i > 0;-- i) array[i] = group.applyAsInt(array[i << 1], array[i << 1 | 1]);
+		}
+
+		@Override
+		public int setAsInt(int index, int dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			index |= leaf;
+			int ret = array[index];
+			array[index] = dat;
+			for (index >>= 1;index > 0;index >>= 1) array[index] = group.applyAsInt(array[index << 1], array[index << 1 | 1]);
+			return ret;
+		}
+
+		@Override
+		public void applyAsInt(int index, int dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			setAsInt(index, group.applyAsInt(array[index | leaf], dat));
+		}
+
+		@Override
+		public void setAllAsInt(int[] indices, int[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) array[dirty[i] = indices[i] | leaf] = values[i];
+			recalc(dirty);
+		}
+
+		@Override
+		public void applyAllAsInt(int[] indices, int[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) array[dirty[i] = indices[i] | leaf] = group.applyAsInt(array[indices[i] | leaf], values[i]);
+			recalc(dirty);
+		}
+
+		private void recalc(int[] dirty) { // 葉を書き換えた後、祖先を各段で1回ずつ再計算する
+			java.util.Arrays.sort(dirty);
+			for (int length = dirty.length;length > 0 && dirty[0] > 1;) {
+				int next = 0;
+				for (int i = 0;i < length;++ i) {
+					int parent = dirty[i] >> 1;
+					if (next != 0 && dirty[next - 1] == parent) continue;
+					dirty[next++] = parent;
+					array[parent] = group.applyAsInt(array[parent << 1], array[parent << 1 | 1]);
+				}
+				length = next;
+			}
+		}
+
+		@Override
+		public int getAsInt(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			return array[index | leaf];
+		}
+
+		@Override
+		public int getAsInt(int l, int r) {
+			if (l < 0 || l > r || r > size) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+			int L = group.identityAsInt(), R = group.identityAsInt();
+			for (l += leaf, r += leaf;l < r;l >>= 1, r >>= 1) {
+				if ((l & 1) != 0) L = group.applyAsInt(L, array[l++]);
+				if ((r & 1) != 0) R = group.applyAsInt(array[--r], R);
+			}
+			return group.applyAsInt(L, R);
+		}
+
+		@Override
+		public int getAvoidAsInt(int left, int right) {
+			return group.applyAsInt(getAsInt(0, left), getAsInt(right, size));
+		}
+
+		@Override
+		public int binarySearch(int left, int right, IntPredicate f) {
+			if (left < 0 || left > size || right < 0 || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			if (left <= right) return Math.min(maxRight(left, f), right) - 1;
+			return Math.max(minLeft(left, f), right);
+		}
+
+		private int maxRight(int left, IntPredicate f) { // fold[left, pos)がfを満たす最大のpos
+			if (left == size) return size;
+			int sum = group.identityAsInt();
+			left += leaf;
+			do {
+				while ((left & 1) == 0) left >>= 1;
+				if (!f.test(group.applyAsInt(sum, array[left]))) {
+					while (left < leaf) { // 今度は降下しながら見ていく
+						left <<= 1;
+						int next = group.applyAsInt(sum, array[left]);
+						if (f.test(next)) {
+							sum = next;
+							++ left;
+						}
+					}
+					return left - leaf;
+				}
+				sum = group.applyAsInt(sum, array[left++]);
+			} while ((left & -left) != left);
+			return size;
+		}
+
+		private int minLeft(int right, IntPredicate f) { // fold[pos, right)がfを満たす最小のpos
+			if (right == 0) return 0;
+			int sum = group.identityAsInt();
+			right += leaf;
+			do {
+				-- right;
+				while (right > 1 && (right & 1) != 0) right >>= 1;
+				if (!f.test(group.applyAsInt(array[right], sum))) {
+					while (right < leaf) { // 今度は降下しながら見ていく
+						right = right << 1 | 1;
+						int next = group.applyAsInt(array[right], sum);
+						if (f.test(next)) {
+							sum = next;
+							-- right;
+						}
+					}
+					return right + 1 - leaf;
+				}
+				sum = group.applyAsInt(array[right], sum);
+			} while ((right & -right) != right);
+			return 0;
+		}
+
+		@Override
+		public int[] toArrayAsInt() {
+			int[] ret = new int[size];
+			System.arraycopy(array, leaf, ret, 0, size);
+			return ret;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * 指定した場所の値を、datに置換します。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public abstract int setAsInt(int index, int dat);
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、indexの値は元の値にdatを演算した値となります。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 */
+	public abstract void applyAsInt(int index, int dat);
+
+	/**
+	 * 複数の場所の値をまとめて置換します。<br>
+	 * indices[i]の値をvalues[i]に置換することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void setAllAsInt(int[] indices, int[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) setAsInt(indices[i], values[i]);
+	}
+
+	/**
+	 * 複数の場所のデータをまとめて更新します。<br>
+	 * indices[i]の値にvalues[i]を演算することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void applyAllAsInt(int[] indices, int[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) applyAsInt(indices[i], values[i]);
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public int getAsInt(int index) {
+		if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return getAsInt(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。
+	 * @param l 範囲の左区間
+	 * @param r 範囲の右区間
+	 * @return 半開区間[l, r)の合計
+	 */
+	public abstract int getAsInt(int l, int r);
+
+	/**
+	 * 指定した値を除く場所の値を取得します。
+	 * @param index 取得しない場所
+	 * @return 全体からindexを取り除いた値
+	 */
+	public int getAvoidAsInt(int index) {
+		return getAvoidAsInt(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲を除く区間の合計を取得します。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[0, left)+[right, size)の合計
+	 */
+	public abstract int getAvoidAsInt(int left, int right);
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public int[] toArrayAsInt() {
+		int[] ret = new int[size()];
+		for (int i = 0;i < ret.length;++ i) ret[i] = getAsInt(i);
+		return ret;
+	}
+
+	/**
+	 * 全区間で二分探索を行います。
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[0, size)において関数fがtrueを返す最大の値(無ければ-1)
+	 */
+	public int binarySearch(IntPredicate f) {
+		return binarySearch(0, size(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, size)において関数fがtrueを返す最大の値(無ければleft-1)
+	 */
+	public int binarySearch(int left, IntPredicate f) {
+		return binarySearch(left, size(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public abstract int binarySearch(int left, int right, IntPredicate f);
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public abstract int size();
+}
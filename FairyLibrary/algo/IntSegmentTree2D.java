@@ -0,0 +1,143 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.IntCommutativeMonoid;
+
+/**
+ * 二次元セグメント木です。<br>
+ * H×Wの二次元配列に対して、１点更新をO(logHlogW)、長方形領域の合計の取得をO(logHlogW)でできるデータ構造です。<br>
+ * 逆元を必要としないため、最大値や最小値なども扱えます。ただし長方形領域の合計は演算の順序が定まらないため、演算は可換である必要があります。<br>
+ * 値は長さ4HWの一次元配列で管理されます。<br>
+ * これは、{@link SegmentTree2D}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ */
+public class IntSegmentTree2D {
+	private final IntCommutativeMonoid group;
+	private final int[] array; // array[a * 2W + b]は、行方向の頂点aかつ列方向の頂点bの合計
+	private final int height, width;
+
+	/**
+	 * 全ての値が単位元であるようなH×Wの二次元セグメント木を構築します。
+	 * @param H 行数
+	 * @param W 列数
+	 * @param group 演算
+	 */
+	public IntSegmentTree2D(int H, int W, IntCommutativeMonoid group) {
+		if (H < 0 || W < 0 || group == null) throw new IllegalArgumentException();
+		this.group = group;
+		height = H;
+		width = W;
+		long length = (long)H * W; // 4HWをlongで直接求めると溢れ得るので、HWと比べる
+		if (length > Integer.MAX_VALUE >> 2) throw new IllegalArgumentException("too large.");
+		array = new int[(int)length << 2];
+		Arrays.fill(array, group.identityAsInt());
+	}
+
+	/**
+	 * datを初期値とする二次元セグメント木を構築します。<br>
+	 * 計算量はO(HW)です。
+	 * @param dat 初期値、全ての行の長さが等しいこと
+	 * @param group 演算
+	 */
+	public IntSegmentTree2D(int[][] dat, IntCommutativeMonoid group) {
+		this(dat.length, dat.length == 0 ? 0 : dat[0].length, group);
+		int W = width << 1;
+		for (int i = 0;i < height;++ i) {
+			if (dat[i].length != width) throw new IllegalArgumentException("dat is not rectangular.");
+			int offset = (height + i) * W;
+			System.arraycopy(dat[i], 0, array, offset + width, width);
+			for (int b = width - 1;b > 0;-- b) array[offset + b] = group.applyAsInt(array[offset + (b << 1)], array[offset + (b << 1 | 1)]);
+		}
+		for (int a = height - 1;a > 0;-- a) {
+			for (int b = 1;b < W;++ b) array[a * W + b] = group.applyAsInt(array[(a << 1) * W + b], array[(a << 1 | 1) * W + b]);
+		}
+	}
+
+	/**
+	 * 行数を返します。
+	 * @return 行数
+	 */
+	public int height() {
+		return height;
+	}
+
+	/**
+	 * 列数を返します。
+	 * @return 列数
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * 指定した場所の値を、datに置換します。<br>
+	 * 計算量はO(logHlogW)です。
+	 * @param i 更新する行
+	 * @param j 更新する列
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public int setAsInt(int i, int j, int dat) {
+		if (i < 0 || i >= height || j < 0 || j >= width) throw new IndexOutOfBoundsException("out of bounds: (" + i + ", " + j + ")");
+		int W = width << 1, a = i + height, offset = a * W;
+		int ret = array[offset + j + width];
+		array[offset + j + width] = dat;
+		for (int b = j + width >> 1;b > 0;b >>= 1) array[offset + b] = group.applyAsInt(array[offset + (b << 1)], array[offset + (b << 1 | 1)]);
+		for (a >>= 1;a > 0;a >>= 1) { // 行方向の祖先について、変化した列方向の頂点を再計算する
+			for (int b = j + width;b > 0;b >>= 1) array[a * W + b] = group.applyAsInt(array[(a << 1) * W + b], array[(a << 1 | 1) * W + b]);
+		}
+		return ret;
+	}
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、(i, j)の値は元の値にdatを演算した値となります。
+	 * @param i 更新する行
+	 * @param j 更新する列
+	 * @param dat 更新するデータ
+	 */
+	public void applyAsInt(int i, int j, int dat) {
+		setAsInt(i, j, group.applyAsInt(getAsInt(i, j), dat));
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param i 取得したい行
+	 * @param j 取得したい列
+	 * @return その場所の値
+	 */
+	public int getAsInt(int i, int j) {
+		if (i < 0 || i >= height || j < 0 || j >= width) throw new IndexOutOfBoundsException("out of bounds: (" + i + ", " + j + ")");
+		return array[(i + height) * (width << 1) + j + width];
+	}
+
+	private int row(int a, int left, int right) { // 行方向の頂点aにおける[left, right)の合計
+		int ret = group.identityAsInt();
+		int offset = a * (width << 1);
+		for (left += width, right += width;left < right;left >>= 1, right >>= 1) {
+			if ((left & 1) != 0) ret = group.applyAsInt(ret, array[offset + left++]);
+			if ((right & 1) != 0) ret = group.applyAsInt(ret, array[offset + --right]);
+		}
+		return ret;
+	}
+
+	/**
+	 * 指定した長方形領域の合計を取得します。<br>
+	 * 計算量はO(logHlogW)です。
+	 * @param top 領域の上端(これを含む)
+	 * @param left 領域の左端(これを含む)
+	 * @param bottom 領域の下端(これを含まない)
+	 * @param right 領域の右端(これを含まない)
+	 * @return [top, bottom)×[left, right)の合計
+	 */
+	public int getAsInt(int top, int left, int bottom, int right) {
+		if (top < 0 || top > bottom || bottom > height || left < 0 || left > right || right > width) throw new IndexOutOfBoundsException("[" + top + ", " + bottom + ")×[" + left + ", " + right + ") is undefined.");
+		int ret = group.identityAsInt();
+		if (left == right) return ret;
+		for (top += height, bottom += height;top < bottom;top >>= 1, bottom >>= 1) {
+			if ((top & 1) != 0) ret = group.applyAsInt(ret, row(top++, left, right));
+			if ((bottom & 1) != 0) ret = group.applyAsInt(ret, row(--bottom, left, right));
+		}
+		return ret;
+	}
+}
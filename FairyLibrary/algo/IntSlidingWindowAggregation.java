@@ -0,0 +1,229 @@
+package com._31536000.algo;
+
+import java.util.NoSuchElementException;
+import com._31536000.math.algebraic.group.IntMonoid;
+
+/**
+ * 両端への追加と削除を行いながら、全体の総積を求めることができる両端キューです。<br>
+ * 要素と累積値は容量が固定された環状バッファで管理し、前半を先頭側のスタック、後半を末尾側のスタックとして扱います。
+ * 片方のスタックが空になった時は、残りの要素を半分ずつに分け直します。<br>
+ * 追加、削除、総積の取得はいずれもならしO(1)であり、構築後にメモリの確保は行いません。<br>
+ * これは、{@link SlidingWindowAggregation}に対してプリミティブ型特殊化(int向け)を行ったものです。
+ * @author 31536000
+ */
+public class IntSlidingWindowAggregation {
+	private final IntMonoid operator;
+	private final int[] data, sum; // sum[i]は、先頭側ならdata[i]から境界まで、末尾側なら境界からdata[i]までの総積
+	private int head, size, front; // 先頭からfront個の要素が先頭側のスタック
+
+	/**
+	 * 高々capacity個の要素を保持できる、空のキューを作ります。
+	 * @param capacity 容量
+	 * @param operator 演算
+	 */
+	public IntSlidingWindowAggregation(int capacity, IntMonoid operator) {
+		if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		this.operator = operator;
+		data = new int[capacity];
+		sum = new int[capacity];
+	}
+
+	private int index(int i) { // 先頭からi番目の要素の位置
+		return (i += head) >= data.length ? i - data.length : i;
+	}
+
+	private void rebuild(int front) { // 先頭からfront個を先頭側、残りを末尾側として累積値を計算し直す
+		this.front = front;
+		int s = operator.identityAsInt();
+		for (int i = front - 1;i >= 0;-- i) sum[index(i)] = s = operator.applyAsInt(data[index(i)], s);
+		s = operator.identityAsInt();
+		for (int i = front;i < size;++ i) sum[index(i)] = s = operator.applyAsInt(s, data[index(i)]);
+	}
+
+	/**
+	 * 先頭に要素を追加します。
+	 * @param e 追加する要素
+	 * @return 追加できたならtrue、容量を超えるならfalse
+	 */
+	public boolean offerFirst(int e) {
+		if (size == data.length) return false;
+		int next = (head == 0 ? data.length : head) - 1;
+		data[next] = e;
+		sum[next] = front == 0 ? e : operator.applyAsInt(e, sum[head]);
+		head = next;
+		++ front;
+		++ size;
+		return true;
+	}
+
+	/**
+	 * 末尾に要素を追加します。
+	 * @param e 追加する要素
+	 * @return 追加できたならtrue、容量を超えるならfalse
+	 */
+	public boolean offerLast(int e) {
+		if (size == data.length) return false;
+		int next = index(size);
+		data[next] = e;
+		sum[next] = front == size ? e : operator.applyAsInt(sum[index(size - 1)], e);
+		++ size;
+		return true;
+	}
+
+	/**
+	 * 末尾に要素を追加します。
+	 * @param e 追加する要素
+	 * @return 追加できたならtrue、容量を超えるならfalse
+	 */
+	public boolean offer(int e) {
+		return offerLast(e);
+	}
+
+	/**
+	 * 配列の要素を順に末尾に追加します。<br>
+	 * 容量を超える場合は、追加できる所まで追加します。
+	 * @param array 追加する要素
+	 * @return 追加した要素の個数
+	 */
+	public int offerAll(int[] array) {
+		return offerAll(array, 0, array.length);
+	}
+
+	/**
+	 * 配列のfromIndexからtoIndexまでの要素を順に末尾に追加します。<br>
+	 * 容量を超える場合は、追加できる所まで追加します。
+	 * @param array 追加する要素
+	 * @param fromIndex 追加する最初の要素(これを含む)
+	 * @param toIndex 追加する最後の要素(これを含まない)
+	 * @return 追加した要素の個数
+	 */
+	public int offerAll(int[] array, int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > array.length || fromIndex > toIndex) throw new IndexOutOfBoundsException("fromIndex = " + fromIndex + ", toIndex = " + toIndex + ", length = " + array.length);
+		int count = Math.min(toIndex - fromIndex, data.length - size);
+		int s = front == size ? operator.identityAsInt() : sum[index(size - 1)];
+		for (int i = 0, next = index(size);i < count;++ i) {
+			data[next] = array[fromIndex + i];
+			sum[next] = s = operator.applyAsInt(s, data[next]);
+			if (++ next == data.length) next = 0;
+		}
+		size += count;
+		return count;
+	}
+
+	/**
+	 * 先頭に要素を追加します。
+	 * @param e 追加する要素
+	 * @throws IllegalStateException 容量を超える場合
+	 */
+	public void addFirst(int e) {
+		if (!offerFirst(e)) throw new IllegalStateException("Deque full");
+	}
+
+	/**
+	 * 末尾に要素を追加します。
+	 * @param e 追加する要素
+	 * @throws IllegalStateException 容量を超える場合
+	 */
+	public void addLast(int e) {
+		if (!offerLast(e)) throw new IllegalStateException("Deque full");
+	}
+
+	/**
+	 * 末尾に要素を追加します。
+	 * @param e 追加する要素
+	 * @throws IllegalStateException 容量を超える場合
+	 */
+	public void add(int e) {
+		addLast(e);
+	}
+
+	/**
+	 * 先頭の要素を削除します。
+	 * @return 削除した要素
+	 * @throws NoSuchElementException 空の場合
+	 */
+	public int removeFirstAsInt() {
+		if (size == 0) throw new NoSuchElementException();
+		if (front == 0) rebuild(size + 1 >> 1);
+		int ret = data[head];
+		if (++ head == data.length) head = 0;
+		-- front;
+		-- size;
+		return ret;
+	}
+
+	/**
+	 * 末尾の要素を削除します。
+	 * @return 削除した要素
+	 * @throws NoSuchElementException 空の場合
+	 */
+	public int removeLastAsInt() {
+		if (size == 0) throw new NoSuchElementException();
+		if (front == size) rebuild(size >> 1);
+		return data[index(-- size)];
+	}
+
+	/**
+	 * 先頭の要素を削除します。
+	 * @return 削除した要素
+	 * @throws NoSuchElementException 空の場合
+	 */
+	public int removeAsInt() {
+		return removeFirstAsInt();
+	}
+
+	/**
+	 * 先頭の要素を取得します。
+	 * @return 先頭の要素
+	 * @throws NoSuchElementException 空の場合
+	 */
+	public int getFirstAsInt() {
+		if (size == 0) throw new NoSuchElementException();
+		return data[head];
+	}
+
+	/**
+	 * 末尾の要素を取得します。
+	 * @return 末尾の要素
+	 * @throws NoSuchElementException 空の場合
+	 */
+	public int getLastAsInt() {
+		if (size == 0) throw new NoSuchElementException();
+		return data[index(size - 1)];
+	}
+
+	/**
+	 * 保持している要素の個数を返します。
+	 * @return 要素の個数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 要素を1個も保持していないか判定します。
+	 * @return 空ならばtrue
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 全ての要素を削除します。
+	 */
+	public void clear() {
+		head = size = front = 0;
+	}
+
+	/**
+	 * 先頭から末尾まで、全ての要素の総積を求めます。<br>
+	 * 計算量はO(1)です。
+	 * @return 全ての要素の総積
+	 */
+	public int foldAllAsInt() {
+		if (size == 0) return operator.identityAsInt();
+		if (front == 0) return sum[index(size - 1)];
+		if (front == size) return sum[head];
+		return operator.applyAsInt(sum[head], sum[index(size - 1)]);
+	}
+}
@@ -0,0 +1,97 @@
+package com._31536000.algo;
+
+import com._31536000.math.algebraic.group.LongBand;
+import com._31536000.util.LongComparator;
+
+/**
+ * ブロック分割を用いたSparse Tableです。<br>
+ * 値の更新を行わない列に対して、前計算O(N)、範囲取得をO(1)でできるデータ構造です。<br>
+ * 列を長さ32のブロックに分割し、ブロック間の範囲取得は{@link LongSparseTable}で、ブロック内の範囲取得はビットマスクで求めます。<br>
+ * このため、求められるのは比較関数による区間の最小値に限られ、最大値は逆順の比較関数を与えることで求めます。<br>
+ * 使用するメモリは元の列を除いて、ビットマスクのN個のintと、ブロック毎の合計に対するSparse Tableのおよそ(N/32)log(N/32)個のlong(N=10^8でおよそ0.7N個)で、元の列は複製せずに参照するため、構築後に変更してはいけません。
+ * これは、{@link IntBlockSparseTable}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * @author 31536000
+ */
+public class LongBlockSparseTable {
+	private static final int LOG = 5, BLOCK = 1 << LOG;
+	private final LongBand operate; // comparatorによる小さい方
+	private final long[] array;
+	private final int[] mask; // mask[i]のjビット目は、iを含むブロックの先頭をsとして、閉区間[s+j, i]の合計がarray[s+j]であるか
+	private final LongSparseTable block; // 各ブロックの合計
+	private final int size;
+
+	/**
+	 * arrayを値とし、区間の最小値を求めるSparse Tableを構築します。<br>
+	 * 計算量はO(N)です。
+	 * @param array 値
+	 */
+	public LongBlockSparseTable(long[] array) {
+		this(array, LongComparator.naturalOrder());
+	}
+
+	/**
+	 * arrayを値とし、comparatorによる区間の最小値を求めるSparse Tableを構築します。<br>
+	 * 計算量はO(N)です。
+	 * @param array 値
+	 * @param comparator 比較関数、最大値を求めるなら{@link LongComparator#reversed()}を与える
+	 */
+	public LongBlockSparseTable(long[] array, LongComparator comparator) {
+		if (array == null || array.length < 1 || comparator == null) throw new IllegalArgumentException();
+		operate = (l, r) -> comparator.compare(l, r) <= 0 ? l : r;
+		this.array = array;
+		size = array.length;
+		mask = new int[size];
+		long[] sum = new long[(size + BLOCK - 1) >> LOG];
+		for (int s = 0;s < size;s += BLOCK) {
+			int stack = 0; // 閉区間[s+j, i]の合計がarray[s+j]となるようなjの集合
+			for (int i = s, end = Math.min(s + BLOCK, size);i < end;++ i) {
+				while (stack != 0) {
+					int top = s + 31 - Integer.numberOfLeadingZeros(stack);
+					if (comparator.compare(array[top], array[i]) < 0) break;
+					stack ^= 1 << top - s; // array[i]が勝るので、topは以後答えにならない
+				}
+				mask[i] = stack |= 1 << i - s;
+			}
+			sum[s >> LOG] = array[s + Integer.numberOfTrailingZeros(stack)];
+		}
+		block = new LongSparseTable(sum, operate);
+	}
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public long getAsLong(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return array[index];
+	}
+
+	private long inBlock(int left, int right) { // 同じブロックに属する閉区間[left, right]の合計
+		return array[(right >> LOG << LOG) + Integer.numberOfTrailingZeros(mask[right] & -1 << (left & BLOCK - 1))];
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。<br>
+	 * 単位元が無いため、区間は空であってはいけません。<br>
+	 * 計算量はO(1)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の合計
+	 */
+	public long getAsLong(int left, int right) {
+		if (left < 0 || left >= right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+		int L = left >> LOG, R = -- right >> LOG;
+		if (L == R) return inBlock(left, right);
+		long ret = operate.applyAsLong(inBlock(left, (L + 1 << LOG) - 1), inBlock(R << LOG, right));
+		return L + 1 == R ? ret : operate.applyAsLong(ret, block.getAsLong(L + 1, R));
+	}
+}
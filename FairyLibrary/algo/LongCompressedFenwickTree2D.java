@@ -0,0 +1,140 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.LongAbelian;
+import com._31536000.util.ArrayUtility;
+
+/**
+ * 座標圧縮を用いた二次元Fenwick Treeです。<br>
+ * 更新する点が予め分かっている場合に、点の個数をNとして１点更新をO(log^2N)、長方形領域の合計の取得をO(log^2N)でできるデータ構造です。<br>
+ * 座標はlongの範囲で取ることができ、使用するメモリはO(NlogN)です。<br>
+ * 値は一次元配列で管理されます。<br>
+ * これは、{@link CompressedFenwickTree2D}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * @author 31536000
+ */
+public class LongCompressedFenwickTree2D {
+	private final LongAbelian group;
+	private final long[] xs; // 座標圧縮したx座標
+	private final int[] start; // x方向の頂点kが担当するy座標は、ys[start[k]]からys[start[k+1]-1]まで
+	private final long[] ys;
+	private final long[] array; // array[start[k] + p]は、x方向の頂点kにおけるy方向の1-indexedで(p+1)番目の頂点
+	private final int size;
+
+	/**
+	 * 点(x[i], y[i])に対して更新が行われる、全ての値が単位元であるような二次元Fenwick Treeを構築します。<br>
+	 * 計算量はO(Nlog^2N)です。
+	 * @param x 更新する点のx座標
+	 * @param y 更新する点のy座標
+	 * @param group 演算
+	 */
+	public LongCompressedFenwickTree2D(long[] x, long[] y, LongAbelian group) {
+		if (x == null || y == null || x.length != y.length || group == null) throw new IllegalArgumentException();
+		this.group = group;
+		int[] rank = ArrayUtility.compress(x);
+		int X = 0;
+		for (int r : rank) X = Math.max(X, r + 1);
+		size = X;
+		xs = new long[X];
+		for (int i = 0;i < x.length;++ i) xs[rank[i]] = x[i];
+		int[] count = new int[X + 2];
+		for (int r : rank) for (int k = r + 1;k <= X;k += k & -k) ++ count[k + 1];
+		for (int k = 1;k <= X;++ k) count[k + 1] += count[k];
+		long[] ys = new long[count[X + 1]];
+		int[] fill = Arrays.copyOf(count, X + 1);
+		for (int i = 0;i < x.length;++ i) for (int k = rank[i] + 1;k <= X;k += k & -k) ys[fill[k]++] = y[i];
+		start = new int[X + 2];
+		int length = 0;
+		for (int k = 1;k <= X;++ k) { // 各頂点のy座標を整列して重複を取り除く
+			start[k] = length;
+			Arrays.sort(ys, count[k], count[k + 1]);
+			for (int i = count[k];i < count[k + 1];++ i) if (length == start[k] || ys[length - 1] != ys[i]) ys[length++] = ys[i];
+		}
+		start[X + 1] = length;
+		this.ys = Arrays.copyOf(ys, length);
+		array = new long[length];
+		Arrays.fill(array, group.identityAsLong());
+	}
+
+	private static int lowerBound(long[] array, int from, int to, long key) { // array[from, to)でkey以上の最初の添字
+		while (from < to) {
+			int mid = from + to >>> 1;
+			if (array[mid] < key) from = mid + 1;
+			else to = mid;
+		}
+		return from;
+	}
+
+	/**
+	 * 指定した点の値を、datに置換します。<br>
+	 * 点は構築時に与えたものである必要があります。
+	 * @param x 更新する点のx座標
+	 * @param y 更新する点のy座標
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public long setAsLong(long x, long y, long dat) {
+		long ret = getAsLong(x, y);
+		applyAsLong(x, y, group.applyAsLong(group.inverseAsLong(ret), dat));
+		return ret;
+	}
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、(x, y)の値は元の値にdatを演算した値となります。点は構築時に与えたものである必要があります。<br>
+	 * 計算量はO(log^2N)です。
+	 * @param x 更新する点のx座標
+	 * @param y 更新する点のy座標
+	 * @param dat 更新するデータ
+	 */
+	public void applyAsLong(long x, long y, long dat) {
+		int r = Arrays.binarySearch(xs, x);
+		if (r < 0) throw new IllegalArgumentException("(" + x + ", " + y + ") is not registered.");
+		for (int k = r + 1;k <= size;k += k & -k) {
+			int p = lowerBound(ys, start[k], start[k + 1], y), offset = start[k] - 1, length = start[k + 1] - offset;
+			if (p == start[k + 1] || ys[p] != y) throw new IllegalArgumentException("(" + x + ", " + y + ") is not registered.");
+			for (p -= offset;p < length;p += p & -p) array[offset + p] = group.applyAsLong(array[offset + p], dat);
+		}
+	}
+
+	private long sum(int r, long y, boolean inclusive) { // x方向の順位がr未満で、y座標がy未満(inclusiveならy以下)の点の合計
+		long ret = group.identityAsLong();
+		for (int k = r;k > 0;k -= k & -k) {
+			int p = lowerBound(ys, start[k], start[k + 1], y), offset = start[k] - 1;
+			if (inclusive && p < start[k + 1] && ys[p] == y) ++ p;
+			for (p -= offset + 1;p > 0;p -= p & -p) ret = group.applyAsLong(ret, array[offset + p]);
+		}
+		return ret;
+	}
+
+	/**
+	 * 指定した点の値を取得します。<br>
+	 * 計算量はO(log^2N)です。
+	 * @param x 取得したい点のx座標
+	 * @param y 取得したい点のy座標
+	 * @return その点の値
+	 */
+	public long getAsLong(long x, long y) {
+		int r = Arrays.binarySearch(xs, x);
+		if (r < 0) return group.identityAsLong();
+		long plus = group.applyAsLong(sum(r + 1, y, true), sum(r, y, false));
+		long minus = group.applyAsLong(sum(r, y, true), sum(r + 1, y, false));
+		return group.applyAsLong(plus, group.inverseAsLong(minus));
+	}
+
+	/**
+	 * 指定した長方形領域の合計を取得します。<br>
+	 * 計算量はO(log^2N)です。
+	 * @param x1 領域のx座標の下限(これを含む)
+	 * @param y1 領域のy座標の下限(これを含む)
+	 * @param x2 領域のx座標の上限(これを含まない)
+	 * @param y2 領域のy座標の上限(これを含まない)
+	 * @return [x1, x2)×[y1, y2)の合計
+	 */
+	public long getAsLong(long x1, long y1, long x2, long y2) {
+		if (x1 >= x2 || y1 >= y2) return group.identityAsLong();
+		int r1 = lowerBound(xs, 0, size, x1), r2 = lowerBound(xs, 0, size, x2);
+		long plus = group.applyAsLong(sum(r2, y2, false), sum(r1, y1, false));
+		long minus = group.applyAsLong(sum(r1, y2, false), sum(r2, y1, false));
+		return group.applyAsLong(plus, group.inverseAsLong(minus));
+	}
+}
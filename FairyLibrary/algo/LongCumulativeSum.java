@@ -0,0 +1,203 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.LongAbelian;
+import com._31536000.math.algebraic.group.LongInvertible;
+import com._31536000.math.algebraic.group.LongMonoid;
+
+/**
+ * 累積和を計算します。<br>
+ * 累積和は必要になった時に、必要になった所まで計算します。
+ * 左からの累積和しか使わない場合は右からの累積和の配列を確保せず、その逆も同様です。<br>
+ * 末尾に要素を追加することができ、左からの累積和は追加された分だけ計算を続けます。<br>
+ * これは、{@link CumulativeSum}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * @author 31536000
+ *
+ */
+public class LongCumulativeSum {
+	private long[] data;
+	private int size;
+	private boolean shared; // dataが呼び出し元の配列を参照しているならtrue
+	private long[] leftSum, rightSum; // 未計算ならnull
+	private int computed; // leftSum[0, computed]は計算済み
+	private final LongMonoid operate;
+	private final LongInvertible inverse;
+	static final LongAbelian ADD = new LongAbelian() {
+		@Override
+		public long applyAsLong(long left, long right) {
+			return left + right;
+		}
+
+		@Override
+		public long identityAsLong() {
+			return 0;
+		}
+
+		@Override
+		public long inverseAsLong(long element) {
+			return -element;
+		}
+	};
+
+	private LongCumulativeSum(long[] dat, LongMonoid operate) {
+		this.operate = operate;
+		inverse = operate instanceof LongInvertible ? (LongInvertible)operate : null;
+		data = dat;
+		size = dat.length;
+		shared = true;
+	}
+
+	private void rangeCheck(int index) {
+		if (index < 0 || index > size) throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+	}
+
+	private void rangeCheck(int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is out of bounds: " + size);
+	}
+
+	private long[] leftSum(int index) { // leftSum[0, index]を計算して返す
+		if (leftSum == null) {
+			leftSum = new long[Math.max(index, 1) + 1];
+			leftSum[0] = operate.identityAsLong();
+		} else if (leftSum.length <= index) leftSum = Arrays.copyOf(leftSum, Math.max(index + 1, leftSum.length + (leftSum.length >> 1)));
+		for (;computed < index;++ computed) leftSum[computed + 1] = operate.applyAsLong(leftSum[computed], data[computed]);
+		return leftSum;
+	}
+
+	private long[] rightSum() {
+		if (rightSum == null) {
+			rightSum = new long[size + 1];
+			rightSum[size] = operate.identityAsLong();
+			for (int i = size - 1;i >= 0;-- i) rightSum[i] = operate.applyAsLong(data[i], rightSum[i + 1]);
+		}
+		return rightSum;
+	}
+
+	/**
+	 * 末尾に値を追加します。<br>
+	 * 右からの累積和は、次に必要になった時に計算し直します。
+	 * @param value 追加する値
+	 */
+	public void add(long value) {
+		if (shared || size == data.length) {
+			data = Arrays.copyOf(data, Math.max(size + 1, size + (size >> 1)));
+			shared = false;
+		}
+		data[size++] = value;
+		rightSum = null;
+	}
+
+	/**
+	 * 末尾に配列の値を順に追加します。<br>
+	 * 右からの累積和は、次に必要になった時に計算し直します。
+	 * @param values 追加する値
+	 */
+	public void addAll(long[] values) {
+		if (shared || size + values.length > data.length) {
+			data = Arrays.copyOf(data, Math.max(size + values.length, size + (size >> 1)));
+			shared = false;
+		}
+		System.arraycopy(values, 0, data, size, values.length);
+		size += values.length;
+		rightSum = null;
+	}
+
+	/**
+	 * 保持している値の個数を返します。
+	 * @return 値の個数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * [0, index)の値の合計を返します。
+	 * @param index 累積和の右辺
+	 * @return [0, index)の値の合計
+	 */
+	public long getSumAsLong(int index) {
+		rangeCheck(index);
+		return leftSum(index)[index];
+	}
+
+	/**
+	 * [index, size)の値の合計を返します。
+	 * @param index 累積和の左辺
+	 * @return [index, size)の値の合計
+	 */
+	public long getLastSumAsLong(int index) {
+		rangeCheck(index);
+		return rightSum()[index];
+	}
+
+	/**
+	 * [0, index) + (index, size)の値の合計を返します。
+	 * @param index 除外したい値
+	 * @return indexを除く全区間の値の合計
+	 */
+	public long getAvoidSumAsLong(int index) {
+		return getAvoidSumAsLong(index, index + 1);
+	}
+
+	/**
+	 * [0, left) + [right, size)の値の合計を返します。
+	 * @param left 除外する区間の左閉区間
+	 * @param right 除外する区間の右開区間
+	 * @return [left, right)を除く全区間の値の合計
+	 */
+	public long getAvoidSumAsLong(int left, int right) {
+		rangeCheck(left, right);
+		return operate.applyAsLong(getSumAsLong(left), getLastSumAsLong(right));
+	}
+
+	/**
+	 * 区間[left, right)の値の合計を返します。<br>
+	 * 演算が逆元を持たない場合、leftが0であるかrightがsizeである必要があります。
+	 * @param left 左閉区間
+	 * @param right 右開区間
+	 * @return 区間[left, right)の値の合計
+	 */
+	public long getSumAsLong(int left, int right) {
+		rangeCheck(left, right);
+		if (left == 0) return getSumAsLong(right);
+		if (inverse != null) return operate.applyAsLong(inverse.inverseAsLong(getSumAsLong(left)), getSumAsLong(right));
+		if (right == size) return getLastSumAsLong(left);
+		throw new UnsupportedOperationException("operate is not invertible.");
+	}
+
+	/**
+	 * 累積和を構築します。<br>
+	 * 配列はコピーされずに参照されるため、構築後に書き換えてはいけません。
+	 * @param dat 構築する配列
+	 * @param operate 結合法則
+	 * @return 累積和
+	 */
+	public static LongCumulativeSum create(long[] dat, LongMonoid operate) {
+		return new LongCumulativeSum(dat, operate);
+	}
+
+	/**
+	 * 和に関する累積和を構築します。<br>
+	 * 配列はコピーされずに参照されるため、構築後に書き換えてはいけません。
+	 * @param dat 構築する配列
+	 * @return 累積和
+	 */
+	public static LongCumulativeSum create(long[] dat) {
+		return new LongCumulativeSum(dat, ADD);
+	}
+
+	/**
+	 * 値を持たない累積和を構築します。<br>
+	 * 値は{@link #add(long)}で末尾に追加します。
+	 * @param operate 結合法則
+	 * @return 累積和
+	 */
+	public static LongCumulativeSum create(LongMonoid operate) {
+		return new LongCumulativeSum(new long[0], operate);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(leftSum(size), size + 1));
+	}
+}
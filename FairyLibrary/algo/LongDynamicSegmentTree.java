@@ -0,0 +1,327 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import com._31536000.math.algebraic.group.LongMonoid;
+
+/**
+ * 動的セグメント木です。<br>
+ * 添字がlongの範囲[from, to)であるような列に対して、１点更新をO(log(to - from))、範囲取得をO(log(to - from))でできるデータ構造です。<br>
+ * 頂点は更新された場所に対してのみ作られるため、使用するメモリは更新した場所の個数をQとしてO(Qlog(to - from))です。
+ * これは、{@link DynamicSegmentTree}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * @author 31536000
+ */
+public class LongDynamicSegmentTree {
+	private final LongMonoid group;
+	private final long from, to, width;
+	private int[] left, right; // 子の頂点番号、無ければ-1
+	private long[] value;
+	private int nodes;
+
+	/**
+	 * 半開区間[from, to)を添字とし、全ての値が単位元であるような動的セグメント木を構築します。
+	 * @param from 添字の下限(これを含む)
+	 * @param to 添字の上限(これを含まない)
+	 * @param group 演算
+	 */
+	public LongDynamicSegmentTree(long from, long to, LongMonoid group) {
+		if (from >= to || to - from <= 0 || group == null) throw new IllegalArgumentException("[" + from + ", " + to + ") is undefined.");
+		this.group = group;
+		this.from = from;
+		this.to = to;
+		width = to - from;
+		left = new int[16];
+		right = new int[16];
+		value = new long[16];
+		newNode();
+	}
+
+	/**
+	 * 半開区間[0, N)を添字とし、全ての値が単位元であるような動的セグメント木を構築します。
+	 * @param N 要素数
+	 * @param group 演算
+	 */
+	public LongDynamicSegmentTree(long N, LongMonoid group) {
+		this(0, N, group);
+	}
+
+	private int newNode() {
+		if (nodes == value.length) {
+			int capacity = value.length + (value.length >> 1);
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+			value = Arrays.copyOf(value, capacity);
+		}
+		left[nodes] = right[nodes] = -1;
+		value[nodes] = group.identityAsLong();
+		return nodes++;
+	}
+
+	private long value(int node) {
+		return node < 0 ? group.identityAsLong() : value[node];
+	}
+
+	/**
+	 * 頂点の個数を返します。
+	 * @return 作られた頂点の個数
+	 */
+	public int nodes() {
+		return nodes;
+	}
+
+	/**
+	 * 添字の下限を返します。
+	 * @return 添字の下限(これを含む)
+	 */
+	public long from() {
+		return from;
+	}
+
+	/**
+	 * 添字の上限を返します。
+	 * @return 添字の上限(これを含まない)
+	 */
+	public long to() {
+		return to;
+	}
+
+	/**
+	 * 指定した場所の値を、datに置換します。<br>
+	 * 計算量はO(log(to - from))です。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public long setAsLong(long index, long dat) {
+		if (index < from || index >= to) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		index -= from;
+		int[] path = new int[64]; // 根から葉までの頂点
+		int node = 0, depth = 0;
+		for (long l = 0, r = width;r - l > 1;++ depth) {
+			path[depth] = node;
+			long m = l + (r - l >>> 1);
+			int next;
+			if (index < m) {
+				if ((next = left[node]) < 0) { // newNodeで配列が取り直され得るので、先に頂点を作る
+					next = newNode();
+					left[node] = next;
+				}
+				r = m;
+			} else {
+				if ((next = right[node]) < 0) {
+					next = newNode();
+					right[node] = next;
+				}
+				l = m;
+			}
+			node = next;
+		}
+		long ret = value(node);
+		value[node] = dat;
+		while (depth > 0) { // 根に向かって再計算する
+			node = path[--depth];
+			value[node] = group.applyAsLong(value(left[node]), value(right[node]));
+		}
+		return ret;
+	}
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、indexの値は元の値にdatを演算した値となります。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 */
+	public void applyAsLong(long index, long dat) {
+		setAsLong(index, group.applyAsLong(getAsLong(index), dat));
+	}
+
+	/**
+	 * 指定した場所の値を取得します。<br>
+	 * 計算量はO(log(to - from))です。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public long getAsLong(long index) {
+		if (index < from || index >= to) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		index -= from;
+		int node = 0;
+		for (long l = 0, r = width;r - l > 1 && node >= 0;) {
+			long m = l + (r - l >>> 1);
+			if (index < m) {
+				node = left[node];
+				r = m;
+			} else {
+				node = right[node];
+				l = m;
+			}
+		}
+		return value(node);
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。<br>
+	 * 計算量はO(log(to - from))です。
+	 * @param l 範囲の左区間
+	 * @param r 範囲の右区間
+	 * @return 半開区間[l, r)の合計
+	 */
+	public long getAsLong(long l, long r) {
+		if (l < from || l > r || r > to) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+		if (l == r) return group.identityAsLong();
+		return getAsLong(0, 0, width, l - from, r - from);
+	}
+
+	private long getAsLong(int node, long nl, long nr, long l, long r) {
+		if (node < 0) return group.identityAsLong();
+		if (l <= nl && nr <= r) return value(node);
+		long m = nl + (nr - nl >>> 1);
+		if (r <= m) return getAsLong(left[node], nl, m, l, r);
+		if (m <= l) return getAsLong(right[node], m, nr, l, r);
+		return group.applyAsLong(getAsLong(left[node], nl, m, l, r), getAsLong(right[node], m, nr, l, r));
+	}
+
+	/**
+	 * 指定した範囲を除く区間の合計を取得します。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[from, left)+[right, to)の合計
+	 */
+	public long getAvoidAsLong(long left, long right) {
+		return group.applyAsLong(getAsLong(from, left), getAsLong(right, to));
+	}
+
+	/**
+	 * 全区間で二分探索を行います。
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[from, to)において関数fがtrueを返す最大の値(無ければfrom-1)
+	 */
+	public long binarySearch(LongPredicate f) {
+		return binarySearch(from, to, f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, to)において関数fがtrueを返す最大の値(無ければleft-1)
+	 */
+	public long binarySearch(long left, LongPredicate f) {
+		return binarySearch(left, to, f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(log(to - from))です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public long binarySearch(long left, long right, LongPredicate f) {
+		if (left < from || left > to || right < from || right > to) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+		if (!f.test(group.identityAsLong())) return left <= right ? left - 1 : left; // 単位元すら満たさないなら空の区間が答え
+		if (left <= right) return Math.min(maxRight(left - from, f), right - from) - 1 + from;
+		return Math.max(minLeft(left - from, f), right - from) + from;
+	}
+
+	private long maxRight(long left, LongPredicate f) { // fold[left, pos)がfを満たす最大のpos、ただしf(単位元)は真とする
+		if (left == width) return width;
+		int[] node = new int[64]; // [left, width)を覆う頂点、後に積んだものほど左にある
+		long[] lower = new long[64], upper = new long[64];
+		int count = 0, v = 0;
+		for (long nl = 0, nr = width;;) {
+			if (left == nl || v < 0) { // 頂点が無ければ全て単位元なので、これ以上分けなくて良い
+				node[count] = v;
+				lower[count] = nl;
+				upper[count++] = nr;
+				break;
+			}
+			long m = nl + (nr - nl >>> 1);
+			if (left < m) {
+				node[count] = this.right[v];
+				lower[count] = m;
+				upper[count++] = nr;
+				v = this.left[v];
+				nr = m;
+			} else {
+				v = this.right[v];
+				nl = m;
+			}
+		}
+		long sum = group.identityAsLong();
+		while (count > 0) {
+			v = node[--count];
+			long nl = lower[count], nr = upper[count];
+			long next = group.applyAsLong(sum, value(v));
+			if (f.test(next)) {
+				sum = next;
+				continue;
+			}
+			while (nr - nl > 1) { // fを満たさないので、今度は降下しながら見ていく
+				long m = nl + (nr - nl >>> 1);
+				next = group.applyAsLong(sum, value(this.left[v]));
+				if (f.test(next)) {
+					sum = next;
+					v = this.right[v];
+					nl = m;
+				} else {
+					v = this.left[v];
+					nr = m;
+				}
+			}
+			return nl;
+		}
+		return width;
+	}
+
+	private long minLeft(long right, LongPredicate f) { // fold[pos, right)がfを満たす最小のpos、ただしf(単位元)は真とする
+		if (right == 0) return 0;
+		int[] node = new int[64]; // [0, right)を覆う頂点、後に積んだものほど右にある
+		long[] lower = new long[64], upper = new long[64];
+		int count = 0, v = 0;
+		for (long nl = 0, nr = width;;) {
+			if (right == nr || v < 0) {
+				node[count] = v;
+				lower[count] = nl;
+				upper[count++] = nr;
+				break;
+			}
+			long m = nl + (nr - nl >>> 1);
+			if (right > m) {
+				node[count] = this.left[v];
+				lower[count] = nl;
+				upper[count++] = m;
+				v = this.right[v];
+				nl = m;
+			} else {
+				v = this.left[v];
+				nr = m;
+			}
+		}
+		long sum = group.identityAsLong();
+		while (count > 0) {
+			v = node[--count];
+			long nl = lower[count], nr = upper[count];
+			long next = group.applyAsLong(value(v), sum);
+			if (f.test(next)) {
+				sum = next;
+				continue;
+			}
+			while (nr - nl > 1) { // fを満たさないので、今度は降下しながら見ていく
+				long m = nl + (nr - nl >>> 1);
+				next = group.applyAsLong(value(this.right[v]), sum);
+				if (f.test(next)) {
+					sum = next;
+					v = this.left[v];
+					nr = m;
+				} else {
+					v = this.right[v];
+					nl = m;
+				}
+			}
+			return nr;
+		}
+		return 0;
+	}
+}
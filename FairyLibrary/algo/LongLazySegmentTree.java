@@ -0,0 +1,259 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import com._31536000.math.algebraic.group.LongCommutativeMonoid;
+
+/**
+ * 遅延評価セグメント木です。<br>
+ * 区間更新をO(logN)、範囲取得をO(logN)でできるデータ構造です。<br>
+ * 長さlengthの区間の値datに対して更新lazyを作用させた値は、mapping.applyAsLong(dat, lazygroup.hyperAsLong(lazy, length))で与えられます。<br>
+ * 例えば区間加算・区間最小値取得を行う場合、lazygroupのhyperAsLongはlengthに依らずlazyを返すようにします。<br>
+ * これは、{@link LazySegmentTree}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * @author 31536000
+ */
+public class LongLazySegmentTree {
+	private final LongCommutativeMonoid semigroup;
+	private final LongCommutativeMonoid lazygroup;
+	private final LongBinaryOperator mapping;
+	private final long[] dat;
+	private final long[] lazy;
+	private final int size, log;
+	private final long identity;
+
+	public LongLazySegmentTree(int N, long dat, LongCommutativeMonoid semigroup, LongCommutativeMonoid lazygroup, LongBinaryOperator mapping) {
+		this.semigroup = semigroup;
+		this.lazygroup = lazygroup;
+		this.mapping = mapping;
+		size = N;
+		log = N <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(N - 1);
+		identity = lazygroup.identityAsLong();
+		this.dat = new long[2 << log]; // 要素数以上の最小の2冪*2
+		this.lazy = new long[1 << log]; // その遅延評価に使う関数
+		Arrays.fill(this.lazy, identity);
+		Arrays.fill(this.dat, 1 << log, (1 << log) + N, dat); // 最下段を埋める
+		Arrays.fill(this.dat, (1 << log) + N, this.dat.length, semigroup.identityAsLong());
+		for (int i = (1 << log) - 1;i > 0; -- i) merge(i); // 最下段以外すべて、下から埋める
+	}
+
+	public LongLazySegmentTree(long[] dat, LongCommutativeMonoid semigroup, LongCommutativeMonoid lazygroup, LongBinaryOperator mapping) {
+		this.semigroup = semigroup;
+		this.lazygroup = lazygroup;
+		this.mapping = mapping;
+		size = dat.length;
+		log = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+		identity = lazygroup.identityAsLong();
+		this.dat = new long[2 << log]; // 要素数以上の最小の2冪*2
+		this.lazy = new long[1 << log]; // その遅延評価に使う関数
+		Arrays.fill(this.lazy, identity);
+		System.arraycopy(dat, 0, this.dat, 1 << log, dat.length); // 最下段を埋める
+		Arrays.fill(this.dat, (1 << log) + dat.length, this.dat.length, semigroup.identityAsLong());
+		for (int i = (1 << log) - 1;i > 0; -- i) merge(i); // 最下段以外すべて、下から埋める
+	}
+
+	private int length(int index) { // indexが表す区間の長さ
+		return 1 << log - (31 - Integer.numberOfLeadingZeros(index));
+	}
+
+	private void merge(int index) {
+		dat[index] = semigroup.applyAsLong(dat[index << 1], dat[index << 1 | 1]);
+	}
+
+	private void lazyUpdate(long lazy, int index) {
+		dat[index] = mapping.applyAsLong(dat[index], lazygroup.hyperAsLong(lazy, length(index)));
+		if (index < this.lazy.length) this.lazy[index] = lazygroup.applyAsLong(this.lazy[index], lazy);
+	}
+
+	private void lazy(int index) {
+		if (lazy[index] == identity) return; // 単位元の作用は何もしない
+		lazyUpdate(lazy[index], index << 1);
+		lazyUpdate(lazy[index], index << 1 | 1);
+		lazy[index] = identity;
+	}
+
+	/**
+	 * indexで指定した値に対して更新操作を行います。
+	 * @param dat 更新するデータ
+	 * @param index 更新する場所
+	 */
+	public void update(long dat, int index) {
+		update(dat, index, index + 1);
+	}
+
+	/**
+	 * 区間[left, right)に対して更新操作を行います。
+	 * @param dat 更新するデータ
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	public void update(long dat, int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		if (left == right) return;
+		left += lazy.length;
+		right += lazy.length;
+		for (int i = log;i > 0;-- i) { // 境界を見つけるまで遅延評価
+			if ((left >> i << i) != left) lazy(left >> i);
+			if ((right >> i << i) != right) lazy(right - 1 >> i);
+		}
+		for (int l = left, r = right;l < r;l >>= 1, r >>= 1) {
+			if ((l & 1) != 0) lazyUpdate(dat, l++);
+			if ((r & 1) != 0) lazyUpdate(dat, --r);
+		}
+		// これで全ての遅延評価が終わったので、次は戻していく操作
+		for (int i = 1;i <= log;++ i) {
+			if ((left >> i << i) != left) merge(left >> i);
+			if ((right >> i << i) != right) merge(right - 1 >> i);
+		}
+	}
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public long[] toArrayAsLong() {
+		for (int i = 1;i < lazy.length;++ i) lazy(i);
+		return Arrays.copyOfRange(dat, lazy.length, lazy.length + size);
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public long getAsLong(int index) {
+		return getAsLong(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の合計
+	 */
+	public long getAsLong(int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		if (left == right) return semigroup.identityAsLong();
+		left += lazy.length;
+		right += lazy.length;
+		for (int i = log;i > 0;-- i) { // 境界を見つけるまで遅延評価
+			if ((left >> i << i) != left) lazy(left >> i);
+			if ((right >> i << i) != right) lazy(right - 1 >> i);
+		}
+		long L = semigroup.identityAsLong(), R = semigroup.identityAsLong();
+		for (;left < right;left >>= 1, right >>= 1) {
+			if ((left & 1) != 0) L = semigroup.applyAsLong(L, dat[left++]);
+			if ((right & 1) != 0) R = semigroup.applyAsLong(dat[--right], R);
+		}
+		return semigroup.applyAsLong(L, R);
+	}
+
+	/**
+	 * 指定した値を除く場所の値を取得します。
+	 * @param index 取得しない場所
+	 * @return 全体からindexを取り除いた値
+	 */
+	public long getAvoidAsLong(int index) {
+		return getAvoidAsLong(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲を除く区間の合計を取得します。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[0, left)+[right, size)の合計
+	 */
+	public long getAvoidAsLong(int left, int right) {
+		return semigroup.applyAsLong(getAsLong(0, left), getAsLong(right, size));
+	}
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 全区間で二分探索を行います。
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[0, size)において関数fがtrueを返す最大の値(無ければ-1)
+	 */
+	public int binarySearch(LongPredicate f) {
+		return binarySearch(0, size, f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, size)において関数fがtrueを返す最大の値(無ければleft-1)
+	 */
+	public int binarySearch(int left, LongPredicate f) {
+		return binarySearch(left, size, f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public int binarySearch(int left, int right, LongPredicate f) {
+		if (left < 0 || left > size || right < 0 || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		if (left <= right) return Math.min(maxRight(left, f), right) - 1;
+		return Math.max(minLeft(left, f), right);
+	}
+
+	private int maxRight(int left, LongPredicate f) { // fold[left, pos)がfを満たす最大のpos
+		if (left == size) return size;
+		left += lazy.length;
+		for (int i = log;i > 0;-- i) lazy(left >> i); // 根からleftまでを遅延評価
+		long sum = semigroup.identityAsLong(), next;
+		do {
+			while ((left & 1) == 0) left >>= 1;
+			if (!f.test(next = semigroup.applyAsLong(sum, dat[left]))) {
+				while (left < lazy.length) { // 今度は降下しながら見ていく
+					lazy(left);
+					left <<= 1;
+					if (f.test(next = semigroup.applyAsLong(sum, dat[left]))) {
+						sum = next;
+						++ left;
+					}
+				}
+				return left - lazy.length;
+			}
+			sum = next;
+			++ left;
+		} while ((left & -left) != left);
+		return size;
+	}
+
+	private int minLeft(int right, LongPredicate f) { // fold[pos, right)がfを満たす最小のpos
+		if (right == 0) return 0;
+		right += lazy.length;
+		for (int i = log;i > 0;-- i) lazy(right - 1 >> i); // 根からright-1までを遅延評価
+		long sum = semigroup.identityAsLong(), next;
+		do {
+			-- right;
+			while (right > 1 && (right & 1) != 0) right >>= 1;
+			if (!f.test(next = semigroup.applyAsLong(dat[right], sum))) {
+				while (right < lazy.length) { // 今度は降下しながら見ていく
+					lazy(right);
+					right = right << 1 | 1;
+					if (f.test(next = semigroup.applyAsLong(dat[right], sum))) {
+						sum = next;
+						-- right;
+					}
+				}
+				return right + 1 - lazy.length;
+			}
+			sum = next;
+		} while ((right & -right) != right);
+		return 0;
+	}
+}
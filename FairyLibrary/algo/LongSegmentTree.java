@@ -0,0 +1,414 @@
+package com._31536000.algo;
+
+import java.util.function.LongPredicate;
+import java.util.function.IntToLongFunction;
+import com._31536000.math.algebraic.group.LongAbelian;
+import com._31536000.math.algebraic.group.LongMonoid;
+
+/**
+ * セグメント木です。<br>
+ * １点更新をO(logN)、範囲取得をO(logN)でできるデータ構造です。<br>
+ * これは、{@link SegmentTree}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * インスタンスは{@link SegmentTree#create(int, LongMonoid)}などから生成します。
+ * @author 31536000
+ */
+public abstract class LongSegmentTree {
+
+	LongSegmentTree() {
+	}
+
+	static final class FenwickTree extends LongSegmentTree {
+		private final LongAbelian group;
+		private final long[] array;
+		private final int size;
+
+		FenwickTree(int N, LongAbelian group) {
+			size = N;
+			this.group = group;
+			array = new long[N + 1];
+			java.util.Arrays.fill(array, group.identityAsLong());
+		}
+
+		FenwickTree(long[] dat, LongAbelian group) {
+			size = dat.length;
+			this.group = group;
+			array = new long[dat.length + 1];
+			System.arraycopy(dat, 0, array, 1, dat.length);
+			for (int i = 1, j;i <= size;++ i) if ((j = i + (i & -i)) <= size) array[j] = group.applyAsLong(array[i], array[j]);
+		}
+
+		FenwickTree(int N, IntToLongFunction dat, LongAbelian group) {
+			size = N;
+			this.group = group;
+			array = new long[N + 1];
+			for (int i = 1;i <= size;++ i) array[i] = dat.applyAsLong(i - 1);
+			for (int i = 1, j;i <= size;++ i) if ((j = i + (i & -i)) <= size) array[j] = group.applyAsLong(array[i], array[j]);
+		}
+
+		private long prefix(int index) {
+			long ret = group.identityAsLong();
+			for (;index != 0;index ^= index & -index) ret = group.applyAsLong(ret, array[index]);
+			return ret;
+		}
+
+		@Override
+		public long setAsLong(int index, long dat) {
+			long ret = getAsLong(index);
+			applyAsLong(index, group.applyAsLong(group.inverseAsLong(ret), dat));
+			return ret;
+		}
+
+		@Override
+		public void applyAsLong(int index, long dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			for (++ index;index <= size;index += index & -index) array[index] = group.applyAsLong(array[index], dat);
+		}
+
+		@Override
+		public void applyAllAsLong(int[] indices, long[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			if ((long)indices.length * (32 - Integer.numberOfLeadingZeros(size)) <= size) { // 個別に更新した方が速い
+				super.applyAllAsLong(indices, values);
+				return;
+			}
+			long[] diff = new long[size + 1]; // 差分だけでFenwickTreeを作ってから足し合わせる
+			java.util.Arrays.fill(diff, group.identityAsLong());
+			for (int i = 0;i < indices.length;++ i) {
+				if (indices[i] < 0 || indices[i] >= size) throw new IndexOutOfBoundsException("out of bounds: " + indices[i]);
+				diff[indices[i] + 1] = group.applyAsLong(diff[indices[i] + 1], values[i]);
+			}
+			for (int i = 1, j;i <= size;++ i) if ((j = i + (i & -i)) <= size) diff[j] = group.applyAsLong(diff[i], diff[j]);
+			for (int i = 1;i <= size;++ i) array[i] = group.applyAsLong(array[i], diff[i]);
+		}
+
+		@Override
+		public long getAsLong(int l, int r) {
+			if (l < 0 || l > r || r > size) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+			return group.applyAsLong(group.inverseAsLong(prefix(l)), prefix(r));
+		}
+
+		@Override
+		public long getAvoidAsLong(int left, int right) {
+			if (left < 0 || left > right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			return group.applyAsLong(group.inverseAsLong(getAsLong(left, right)), prefix(size));
+		}
+
+		@Override
+		public int binarySearch(int left, int right, LongPredicate f) {
+			if (left < 0 || left > size || right < 0 || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			if (left <= right) { // fold[left, pos)がfを満たす最大のpos
+				int pos = 0;
+				long sum = group.identityAsLong(), from = group.inverseAsLong(prefix(left));
+				for (int i = Integer.highestOneBit(size);i != 0;i >>= 1) {
+					int next = pos + i;
+					if (next > right) continue;
+					long nextSum = group.applyAsLong(sum, array[next]);
+					if (next <= left || f.test(group.applyAsLong(from, nextSum))) {
+						pos = next;
+						sum = nextSum;
+					}
+				}
+				return pos - 1;
+			}
+			// fold[pos, left)がfを満たす最小のpos
+			long to = prefix(left);
+			if (right == 0 && f.test(to)) return 0;
+			int pos = 0;
+			long sum = group.identityAsLong();
+			for (int i = Integer.highestOneBit(size);i != 0;i >>= 1) {
+				int next = pos + i;
+				if (next >= left) continue; // fold[left, left)は調べない
+				long nextSum = group.applyAsLong(sum, array[next]);
+				if (next < right || !f.test(group.applyAsLong(group.inverseAsLong(nextSum), to))) {
+					pos = next;
+					sum = nextSum;
+				}
+			}
+			return pos + 1;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	static final class MonoidSegmentTree extends LongSegmentTree {
+		private final LongMonoid group;
+		private final long[] array;
+		private final int size, leaf;
+
+		MonoidSegmentTree(int N, LongMonoid group) {
+			this.group = group;
+			size = N;
+			leaf = N == 1 ? 1 : Integer.highestOneBit(N - 1) << 1;
+			array = new long[leaf << 1];
+			java.util.Arrays.fill(array, group.identityAsLong());
+		}
+
+		MonoidSegmentTree(long[] dat, LongMonoid group) {
+			this(dat.length, group);
+			System.arraycopy(dat, 0, array, leaf, dat.length);
+			for (int i = leaf - 1;i > 0;-- i) array[i] = group.applyAsLong(array[i << 1], array[i << 1 | 1]);
+		}
+
+		MonoidSegmentTree(int N, IntToLongFunction dat, LongMonoid group) {
+			this(N, group);
+			for (int i = 0;i < N;++ i) array[leaf | i] = dat.applyAsLong(i);
+			for (int i = leaf - 1;i > 0;-- i) array[i] = group.applyAsLong(array[i << 1], array[i << 1 | 1]);
+		}
+
+		@Override
+		public long setAsLong(int index, long dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			index |= leaf;
+			long ret = array[index];
+			array[index] = dat;
+			for (index >>= 1;index > 0;index >>= 1) array[index] = group.applyAsLong(array[index << 1], array[index << 1 | 1]);
+			return ret;
+		}
+
+		@Override
+		public void applyAsLong(int index, long dat) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			setAsLong(index, group.applyAsLong(array[index | leaf], dat));
+		}
+
+		@Override
+		public void setAllAsLong(int[] indices, long[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) array[dirty[i] = indices[i] | leaf] = values[i];
+			recalc(dirty);
+		}
+
+		@Override
+		public void applyAllAsLong(int[] indices, long[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) array[dirty[i] = indices[i] | leaf] = group.applyAsLong(array[indices[i] | leaf], values[i]);
+			recalc(dirty);
+		}
+
+		private void recalc(int[] dirty) { // 葉を書き換えた後、祖先を各段で1回ずつ再計算する
+			java.util.Arrays.sort(dirty);
+			for (int length = dirty.length;length > 0 && dirty[0] > 1;) {
+				int next = 0;
+				for (int i = 0;i < length;++ i) {
+					int parent = dirty[i] >> 1;
+					if (next != 0 && dirty[next - 1] == parent) continue;
+					dirty[next++] = parent;
+					array[parent] = group.applyAsLong(array[parent << 1], array[parent << 1 | 1]);
+				}
+				length = next;
+			}
+		}
+
+		@Override
+		public long getAsLong(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			return array[index | leaf];
+		}
+
+		@Override
+		public long getAsLong(int l, int r) {
+			if (l < 0 || l > r || r > size) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+			long L = group.identityAsLong(), R = group.identityAsLong();
+			for (l += leaf, r += leaf;l < r;l >>= 1, r >>= 1) {
+				if ((l & 1) != 0) L = group.applyAsLong(L, array[l++]);
+				if ((r & 1) != 0) R = group.applyAsLong(array[--r], R);
+			}
+			return group.applyAsLong(L, R);
+		}
+
+		@Override
+		public long getAvoidAsLong(int left, int right) {
+			return group.applyAsLong(getAsLong(0, left), getAsLong(right, size));
+		}
+
+		@Override
+		public int binarySearch(int left, int right, LongPredicate f) {
+			if (left < 0 || left > size || right < 0 || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+			if (left <= right) return Math.min(maxRight(left, f), right) - 1;
+			return Math.max(minLeft(left, f), right);
+		}
+
+		private int maxRight(int left, LongPredicate f) { // fold[left, pos)がfを満たす最大のpos
+			if (left == size) return size;
+			long sum = group.identityAsLong();
+			left += leaf;
+			do {
+				while ((left & 1) == 0) left >>= 1;
+				if (!f.test(group.applyAsLong(sum, array[left]))) {
+					while (left < leaf) { // 今度は降下しながら見ていく
+						left <<= 1;
+						long next = group.applyAsLong(sum, array[left]);
+						if (f.test(next)) {
+							sum = next;
+							++ left;
+						}
+					}
+					return left - leaf;
+				}
+				sum = group.applyAsLong(sum, array[left++]);
+			} while ((left & -left) != left);
+			return size;
+		}
+
+		private int minLeft(int right, LongPredicate f) { // fold[pos, right)がfを満たす最小のpos
+			if (right == 0) return 0;
+			long sum = group.identityAsLong();
+			right += leaf;
+			do {
+				-- right;
+				while (right > 1 && (right & 1) != 0) right >>= 1;
+				if (!f.test(group.applyAsLong(array[right], sum))) {
+					while (right < leaf) { // 今度は降下しながら見ていく
+						right = right << 1 | 1;
+						long next = group.applyAsLong(array[right], sum);
+						if (f.test(next)) {
+							sum = next;
+							-- right;
+						}
+					}
+					return right + 1 - leaf;
+				}
+				sum = group.applyAsLong(array[right], sum);
+			} while ((right & -right) != right);
+			return 0;
+		}
+
+		@Override
+		public long[] toArrayAsLong() {
+			long[] ret = new long[size];
+			System.arraycopy(array, leaf, ret, 0, size);
+			return ret;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * 指定した場所の値を、datに置換します。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 * @return 更新前の値
+	 */
+	public abstract long setAsLong(int index, long dat);
+
+	/**
+	 * データを更新します。<br>
+	 * この操作により、indexの値は元の値にdatを演算した値となります。
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 */
+	public abstract void applyAsLong(int index, long dat);
+
+	/**
+	 * 複数の場所の値をまとめて置換します。<br>
+	 * indices[i]の値をvalues[i]に置換することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void setAllAsLong(int[] indices, long[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) setAsLong(indices[i], values[i]);
+	}
+
+	/**
+	 * 複数の場所のデータをまとめて更新します。<br>
+	 * indices[i]の値にvalues[i]を演算することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void applyAllAsLong(int[] indices, long[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) applyAsLong(indices[i], values[i]);
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public long getAsLong(int index) {
+		if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return getAsLong(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。
+	 * @param l 範囲の左区間
+	 * @param r 範囲の右区間
+	 * @return 半開区間[l, r)の合計
+	 */
+	public abstract long getAsLong(int l, int r);
+
+	/**
+	 * 指定した値を除く場所の値を取得します。
+	 * @param index 取得しない場所
+	 * @return 全体からindexを取り除いた値
+	 */
+	public long getAvoidAsLong(int index) {
+		return getAvoidAsLong(index, index + 1);
+	}
+
+	/**
+	 * 指定した範囲を除く区間の合計を取得します。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[0, left)+[right, size)の合計
+	 */
+	public abstract long getAvoidAsLong(int left, int right);
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public long[] toArrayAsLong() {
+		long[] ret = new long[size()];
+		for (int i = 0;i < ret.length;++ i) ret[i] = getAsLong(i);
+		return ret;
+	}
+
+	/**
+	 * 全区間で二分探索を行います。
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[0, size)において関数fがtrueを返す最大の値(無ければ-1)
+	 */
+	public int binarySearch(LongPredicate f) {
+		return binarySearch(0, size(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, size)において関数fがtrueを返す最大の値(無ければleft-1)
+	 */
+	public int binarySearch(int left, LongPredicate f) {
+		return binarySearch(left, size(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public abstract int binarySearch(int left, int right, LongPredicate f);
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public abstract int size();
+}
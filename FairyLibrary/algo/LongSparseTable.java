@@ -0,0 +1,76 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import com._31536000.math.algebraic.group.LongBand;
+
+/**
+ * Sparse Tableです。<br>
+ * 値の更新を行わない列に対して、前計算O(NlogN)、範囲取得をO(1)でできるデータ構造です。<br>
+ * 演算は冪等性を持つ必要があり、範囲取得は重なり合う2つの区間の合計を演算することで求めます。<br>
+ * これは、{@link SparseTable}に対してプリミティブ型特殊化(long向け)を行ったものです。
+ * @author 31536000
+ */
+public class LongSparseTable {
+	private final LongBand operate;
+	private final long[] table; // table[k * size + i]は、半開区間[i, i+2^k)の合計
+	private final int size;
+
+	/**
+	 * arrayを値とするSparse Tableを構築します。<br>
+	 * 計算量はO(NlogN)です。
+	 * @param array 値
+	 * @param operate 演算
+	 */
+	public LongSparseTable(long[] array, LongBand operate) {
+		if (array == null || array.length < 1 || operate == null) throw new IllegalArgumentException();
+		this.operate = operate;
+		size = array.length;
+		int log = 32 - Integer.numberOfLeadingZeros(size);
+		table = new long[log * size];
+		System.arraycopy(array, 0, table, 0, size);
+		for (int k = 1;k < log;++ k) {
+			int offset = k * size, prev = offset - size, half = 1 << k - 1;
+			for (int i = 0, end = size - (1 << k);i <= end;++ i) table[offset + i] = operate.applyAsLong(table[prev + i], table[prev + i + half]);
+		}
+	}
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public long getAsLong(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return table[index];
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。<br>
+	 * 単位元が無いため、区間は空であってはいけません。<br>
+	 * 計算量はO(1)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の合計
+	 */
+	public long getAsLong(int left, int right) {
+		if (left < 0 || left >= right || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+		int k = 31 - Integer.numberOfLeadingZeros(right - left), offset = k * size;
+		return operate.applyAsLong(table[offset + left], table[offset + right - (1 << k)]);
+	}
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public long[] toArrayAsLong() {
+		return Arrays.copyOf(table, size);
+	}
+}
@@ -13,6 +13,7 @@ import com._31536000.util.collect.IntRange;
  * </ul>
  * addとremoveにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQの場合における計算量はO(Q(logN + g(x)) + Nsqrt(Q)f(x))です。
  * <br>もし削除ができないデータ構造であって、巻き戻し操作ができる場合は、代わりに{@link RollbackMo}を用いてください。
+ * <br>区間クエリの間に一点更新が含まれる場合は、代わりに{@link ModifiableMo}を用いてください。
  * @author 31536000
  *
  * @param <T> クエリに対する答えの型
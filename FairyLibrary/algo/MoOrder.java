@@ -0,0 +1,113 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+
+/**
+ * Mo's Algorithmにおいて、クエリを処理する順番を求めます。<br>
+ * 各メソッドは区間[l[i], r[i])をクエリとして、処理する順に並べたクエリの番号を返します。<br>
+ * 返された配列は{@link IntMo#calc(IntMo, int[], int[], int[], int[])}などに渡すことができます。
+ * @author 31536000
+ */
+public final class MoOrder {
+	private MoOrder() {
+		throw new AssertionError();
+	}
+
+	private static int max(int[] l, int[] r) {
+		if (l.length != r.length) throw new IllegalArgumentException("length is different: " + l.length + ", " + r.length);
+		int N = 1;
+		for (int i = 0;i < l.length;++ i) {
+			if (l[i] < 0 || l[i] > r[i]) throw new IllegalArgumentException("illegal range: [" + l[i] + ", " + r[i] + ")");
+			N = Math.max(N, r[i]);
+		}
+		return N;
+	}
+
+	/**
+	 * 非負整数のキーについて、キーの昇順に安定に並べた添字を返します。<br>
+	 * 16bit毎の基数ソートを行うので、計算量はO(Q)です。
+	 * @param key 各クエリのキー
+	 * @return キーの昇順に並べた添字
+	 */
+	private static int[] sort(long[] key) {
+		int Q = key.length;
+		int[] order = new int[Q], buffer = new int[Q], count = new int[(1 << 16) + 1];
+		long max = 0;
+		for (int i = 0;i < Q;++ i) {
+			order[i] = i;
+			max |= key[i];
+		}
+		for (int shift = 0;shift < 64 && max >>> shift != 0;shift += 16) {
+			Arrays.fill(count, 0);
+			for (int i : order) ++ count[(int)(key[i] >>> shift & 0xFFFF) + 1];
+			for (int i = 1;i <= 1 << 16;++ i) count[i] += count[i - 1];
+			for (int i : order) buffer[count[(int)(key[i] >>> shift & 0xFFFF)]++] = i;
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+		return order;
+	}
+
+	private static long hilbert(int x, int y, int log) {
+		long d = 0;
+		for (int s = 1 << log - 1;s > 0;s >>= 1) {
+			int rx = (x & s) == 0 ? 0 : 1, ry = (y & s) == 0 ? 0 : 1;
+			d += (long)s * s * (3 * rx ^ ry);
+			if (ry == 0) { // 象限に合わせて回転させる
+				if (rx == 1) {
+					x = s - 1 - x;
+					y = s - 1 - y;
+				}
+				int swap = x;
+				x = y;
+				y = swap;
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * 点(l, r)をHilbert曲線に沿って並べた順番を求めます。<br>
+	 * 区間長をNとして、ポインタの移動量はO(Nsqrt(Q))です。計算量はO(QlogN)です。
+	 * @param l 区間の左端(これを含む)
+	 * @param r 区間の右端(これを含まない)
+	 * @return 処理する順に並べたクエリの番号
+	 */
+	public static int[] hilbert(int[] l, int[] r) {
+		int log = 32 - Integer.numberOfLeadingZeros(max(l, r));
+		long[] key = new long[l.length];
+		for (int i = 0;i < key.length;++ i) key[i] = hilbert(l[i], r[i], log);
+		return sort(key);
+	}
+
+	/**
+	 * 左端をN/sqrt(Q)毎のブロックに分け、ブロックの偶奇に応じて右端の昇順と降順を交互に並べた順番を求めます。<br>
+	 * 区間長をNとして、ポインタの移動量はO(Nsqrt(Q))です。計算量はO(Q)です。
+	 * @param l 区間の左端(これを含む)
+	 * @param r 区間の右端(これを含まない)
+	 * @return 処理する順に並べたクエリの番号
+	 */
+	public static int[] oddEven(int[] l, int[] r) {
+		return block(l, r, Math.max(1, (int)(max(l, r) / Math.sqrt(Math.max(1, l.length)))));
+	}
+
+	/**
+	 * 左端を指定した大きさのブロックに分け、ブロックの偶奇に応じて右端の昇順と降順を交互に並べた順番を求めます。<br>
+	 * 計算量はO(Q)です。
+	 * @param l 区間の左端(これを含む)
+	 * @param r 区間の右端(これを含まない)
+	 * @param size ブロックの大きさ
+	 * @return 処理する順に並べたクエリの番号
+	 */
+	public static int[] block(int[] l, int[] r, int size) {
+		if (size <= 0) throw new IllegalArgumentException("size must be positive: " + size);
+		int N = max(l, r);
+		long[] key = new long[l.length];
+		for (int i = 0;i < key.length;++ i) {
+			int block = l[i] / size;
+			key[i] = (long)block << 32 | ((block & 1) == 0 ? r[i] : N - r[i]);
+		}
+		return sort(key);
+	}
+}
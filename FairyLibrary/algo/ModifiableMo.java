@@ -0,0 +1,104 @@
+package com._31536000.algo;
+
+import com._31536000.util.collect.IntRange;
+
+/**
+ * 更新付きのMo's Algorithmを用いて、一点更新を含むクエリ平方分割に対する問題を解くことができます。<br>
+ * このアルゴリズムを実行する時には、ModifiableMoを継承したデータ構造に対してcalcを呼ぶことで実行を行います。<br>
+ * ModifiableMoを継承するデータ構造は、{@link Mo}の操作に加えて次の操作を行うことができなければなりません。
+ * <ul>
+ * 	<li>{@link #update(int)} t番目の更新を適用します。</li>
+ * 	<li>{@link #undo(int)} t番目の更新を取り消します。</li>
+ * </ul>
+ * 更新される要素が現在の区間に含まれる場合、その要素は更新の前に{@link #remove(int)}され、更新の後に{@link #add(int)}されます。
+ * そのため、update及びundoでは要素の値を書き換えるだけで構いません。<br>
+ * addとremove、updateとundoにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQ、更新数がUの場合における計算量はO(Q(logQ + g(x)) + (NQ)^(2/3)U^(1/3)f(x))です。
+ * @author 31536000
+ *
+ * @param <T> クエリに対する答えの型
+ */
+public interface ModifiableMo<T> extends Mo<T> {
+	/**
+	 * t番目の更新を適用します。
+	 * @param t 適用する更新のindex
+	 */
+	void update(int t);
+	/**
+	 * t番目の更新を取り消し、更新前の状態に戻します。
+	 * @param t 取り消す更新のindex
+	 */
+	void undo(int t);
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを返します。
+	 * @param mo 用いるデータ構造
+	 * @param query 求めたい区間クエリ
+	 * @param time 各クエリについて、そのクエリより前に行われる更新の個数
+	 * @param position 各更新について、その更新が書き換える要素のindex
+	 * @return 各クエリに対する答え
+ * @complexity addとremove、updateとundoにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQ、更新数がUの場合における計算量はO(Q(logQ + g(x)) + (NQ)^(2/3)U^(1/3)f(x))
+	 */
+	static <T> java.util.List<T> calc(ModifiableMo<T> mo, IntRange[] query, int[] time, int[] position) {
+		return calc(mo, java.util.Arrays.asList(query), time, position);
+	}
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを返します。
+	 * @param mo 用いるデータ構造
+	 * @param query 求めたい区間クエリ
+	 * @param time 各クエリについて、そのクエリより前に行われる更新の個数
+	 * @param position 各更新について、その更新が書き換える要素のindex
+	 * @return 各クエリに対する答え
+ * @complexity addとremove、updateとundoにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQ、更新数がUの場合における計算量はO(Q(logQ + g(x)) + (NQ)^(2/3)U^(1/3)f(x))
+	 */
+	static <T> java.util.List<T> calc(ModifiableMo<T> mo, java.util.List<IntRange> query, int[] time, int[] position) {
+		if (query.size() != time.length) throw new IllegalArgumentException("length is different: " + query.size() + ", " + time.length);
+		class Query{
+			final int l, r, t, i;
+			Query(IntRange range, int index) {
+				l = range.getClosedLower();
+				r = range.getOpenUpper();
+				t = time[index];
+				i = index;
+				if (t < 0 || t > position.length) throw new IllegalArgumentException("time is out of range: " + t);
+			}
+		}
+		Query[] q = new Query[query.size()];
+		int N = 1;
+		for (int i = 0;i < q.length;++ i) {
+			q[i] = new Query(query.get(i), i);
+			N = Math.max(N, q[i].r);
+		}
+		// 左端と右端のブロック毎に時刻の昇順で処理する、ブロックの大きさは(N^2U/Q)^(1/3)
+		final int B = Math.max(1, (int)Math.cbrt((double)N * N * Math.max(1, position.length) / Math.max(1, q.length)));
+		java.util.Arrays.sort(q, (l, r) -> {
+			if (l.l / B != r.l / B) return Integer.compare(l.l / B, r.l / B);
+			if (l.r / B != r.r / B) return (l.l / B & 1) == 0 ? Integer.compare(l.r / B, r.r / B) : Integer.compare(r.r / B, l.r / B);
+			return (l.r / B & 1) == 0 ? Integer.compare(l.t, r.t) : Integer.compare(r.t, l.t);
+		});
+		Object[] ans = new Object[q.length];
+		int left = 0, right = 0, now = 0;
+		for (Query i : q) {
+			while(left > i.l) mo.add(-- left);
+			while(right < i.r) mo.add(right ++);
+			while(left < i.l) mo.remove(left ++);
+			while(right > i.r) mo.remove(-- right);
+			for (;now < i.t;++ now) {
+				boolean contains = left <= position[now] && position[now] < right;
+				if (contains) mo.remove(position[now]);
+				mo.update(now);
+				if (contains) mo.add(position[now]);
+			}
+			while(now > i.t) {
+				boolean contains = left <= position[-- now] && position[now] < right;
+				if (contains) mo.remove(position[now]);
+				mo.undo(now);
+				if (contains) mo.add(position[now]);
+			}
+			ans[i.i] = mo.get(query.get(i.i));
+		}
+		return java.util.Arrays.stream(ans).map(i -> {
+			@SuppressWarnings("unchecked")
+			T ret = (T)i;
+			return ret;
+		}).collect(java.util.stream.Collectors.toList());
+	}
+}
@@ -0,0 +1,35 @@
+package com._31536000.algo;
+
+import java.util.function.BiFunction;
+import com._31536000.math.algebraic.group.Monoid;
+
+/**
+ * 遅延評価セグメント木です。<br>
+ * 区間更新をO(logN)、範囲取得をO(logN)でできるデータ構造です。<br>
+ * {@link LazySegmentTree}と異なり、値の演算も更新の演算も可換である必要はありません。
+ * 区間の値datに対して更新lazyを作用させた値は、mapping.apply(dat, lazy)で与えられます。
+ * ここで、更新aの後に更新bを行うことは、更新lazygroup.apply(a, b)を行うことと等しくなければなりません。<br>
+ * 区間の長さに依存する作用(例えば一次関数による区間和の更新)を行いたい場合は、区間の長さをTに持たせてください。
+ * @author 31536000
+ *
+ * @param <T> 範囲取得を行いたいクラス
+ * @param <E> 更新に用いるクラス
+ */
+public class MonoidLazySegmentTree<T, E> extends AbstractLazySegmentTree<T, E>{
+	private final BiFunction<T, E, T> mapping;
+
+	public <X extends Monoid<T>, Y extends Monoid<E>> MonoidLazySegmentTree(int N, T dat, X semigroup, Y lazygroup, BiFunction<T, E, T> mapping) {
+		super(N, dat, semigroup, lazygroup);
+		this.mapping = mapping;
+	}
+
+	public <X extends Monoid<T>, Y extends Monoid<E>> MonoidLazySegmentTree(T[] dat, X semigroup, Y lazygroup, BiFunction<T, E, T> mapping) {
+		super(dat, semigroup, lazygroup);
+		this.mapping = mapping;
+	}
+
+	@Override
+	protected T mapping(T dat, E lazy, int length) {
+		return mapping.apply(dat, lazy);
+	}
+}
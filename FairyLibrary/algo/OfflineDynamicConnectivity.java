@@ -0,0 +1,176 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+
+/**
+ * 辺の追加と削除を行うグラフに対して、連結性の判定を先読みして処理するデータ構造です。<br>
+ * 操作を全て登録した後に、各辺が存在する時間の区間を時間軸のセグメント木に載せ、{@link UnionFindUndo}で連結と巻き戻しを行いながら走査します。<br>
+ * 操作の個数をQとして、計算量はO(QlogQlogN)です。
+ * @author 31536000
+ */
+public class OfflineDynamicConnectivity {
+	private final int size;
+	private int[] type, u, v; // 操作の種類と頂点
+	private int operations, queries;
+	private boolean[] isUnion;
+	private int[] getUnion;
+	private static final int LINK = 0, CUT = 1, QUERY = 2;
+
+	/**
+	 * N頂点0辺のグラフを作ります。
+	 * @param N 頂点数
+	 */
+	public OfflineDynamicConnectivity(int N) {
+		if (N < 0) throw new IllegalArgumentException();
+		size = N;
+		type = new int[16];
+		u = new int[16];
+		v = new int[16];
+	}
+
+	private void add(int type, int u, int v) {
+		if (u < 0 || u >= size || v < 0 || v >= size) throw new IndexOutOfBoundsException("out of bounds: (" + u + ", " + v + ")");
+		if (operations == this.type.length) {
+			int capacity = operations + (operations >> 1);
+			this.type = Arrays.copyOf(this.type, capacity);
+			this.u = Arrays.copyOf(this.u, capacity);
+			this.v = Arrays.copyOf(this.v, capacity);
+		}
+		this.type[operations] = type;
+		this.u[operations] = Math.min(u, v);
+		this.v[operations] = Math.max(u, v);
+		++ operations;
+		isUnion = null;
+		getUnion = null;
+	}
+
+	/**
+	 * 頂点uと頂点vを結ぶ辺を追加する操作を登録します。<br>
+	 * 同じ辺を複数本追加することもできます。
+	 * @param u 辺の端点
+	 * @param v 辺の端点
+	 */
+	public void link(int u, int v) {
+		add(LINK, u, v);
+	}
+
+	/**
+	 * 頂点uと頂点vを結ぶ辺を1本削除する操作を登録します。<br>
+	 * その時点で辺が存在しない場合、{@link #isUnion()}などを呼んだ時に例外を投げます。
+	 * @param u 辺の端点
+	 * @param v 辺の端点
+	 */
+	public void cut(int u, int v) {
+		add(CUT, u, v);
+	}
+
+	/**
+	 * その時点で頂点uと頂点vが連結であるかの質問を登録します。
+	 * @param u 判定したい頂点
+	 * @param v 判定したい頂点
+	 * @return 質問の番号
+	 */
+	public int query(int u, int v) {
+		add(QUERY, u, v);
+		return queries++;
+	}
+
+	/**
+	 * 各質問について、頂点が連結であったかを求めます。
+	 * @return i番目の要素がi番目の質問の答えであるような配列
+	 */
+	public boolean[] isUnion() {
+		if (isUnion == null) solve();
+		return isUnion.clone();
+	}
+
+	/**
+	 * 各質問について、その時点での連結成分の個数を求めます。
+	 * @return i番目の要素がi番目の質問の時点での連結成分の個数であるような配列
+	 */
+	public int[] getUnion() {
+		if (getUnion == null) solve();
+		return getUnion.clone();
+	}
+
+	private void solve() {
+		// 各辺が存在する質問の区間[from[e], to[e])を求める
+		// 辺の追加と削除を端点の組毎にまとめ、組の中では時刻順に追加と削除を対応させる
+		int[] from = new int[operations], to = new int[operations], edgeOperation = new int[operations];
+		int edges = 0, changes = 0;
+		int[] change = new int[operations], time = new int[operations]; // 辺を変える操作の番号と、それ以前の質問の個数
+		long[] key = new long[operations];
+		for (int i = 0, q = 0;i < operations;++ i) {
+			if (type[i] == QUERY) ++ q;
+			else if (u[i] != v[i]) { // 自己ループは連結性に影響しない
+				key[changes] = (long)u[i] * size + v[i];
+				time[changes] = q;
+				change[changes++] = i;
+			}
+		}
+		long[] sorted = Arrays.copyOf(key, changes);
+		Arrays.sort(sorted);
+		int kinds = 0;
+		for (int i = 0;i < changes;++ i) if (kinds == 0 || sorted[kinds - 1] != sorted[i]) sorted[kinds++] = sorted[i];
+		int[] id = new int[changes], group = new int[kinds + 1], order = new int[changes];
+		for (int i = 0;i < changes;++ i) ++ group[(id[i] = Arrays.binarySearch(sorted, 0, kinds, key[i])) + 1];
+		for (int i = 0;i < kinds;++ i) group[i + 1] += group[i];
+		int[] next = Arrays.copyOf(group, kinds);
+		for (int i = 0;i < changes;++ i) order[next[id[i]]++] = i; // 組の中では時刻順
+		int[] stack = new int[changes];
+		for (int k = 0;k < kinds;++ k) {
+			int top = 0;
+			for (int j = group[k];j < group[k + 1];++ j) {
+				int c = order[j], i = change[c];
+				if (type[i] == LINK) {
+					stack[top++] = edges;
+					edgeOperation[edges] = i;
+					from[edges++] = time[c];
+				} else {
+					if (top == 0) throw new IllegalArgumentException("(" + u[i] + ", " + v[i] + ") is not linked.");
+					to[stack[--top]] = time[c];
+				}
+			}
+			while (top > 0) to[stack[--top]] = queries; // 最後まで残る辺
+		}
+		// 時間軸のセグメント木の各頂点に辺を載せる
+		int leaf = queries <= 1 ? 1 : Integer.highestOneBit(queries - 1) << 1;
+		int[] start = new int[2 * leaf + 1];
+		for (int e = 0;e < edges;++ e) {
+			for (int l = from[e] + leaf, r = to[e] + leaf;l < r;l >>= 1, r >>= 1) {
+				if ((l & 1) != 0) ++ start[l++ + 1];
+				if ((r & 1) != 0) ++ start[r];
+			}
+		}
+		for (int i = 1;i <= 2 * leaf;++ i) start[i] += start[i - 1];
+		int[] edge = new int[start[2 * leaf]], fill = Arrays.copyOf(start, 2 * leaf);
+		for (int e = 0;e < edges;++ e) {
+			int op = edgeOperation[e];
+			for (int l = from[e] + leaf, r = to[e] + leaf;l < r;l >>= 1, r >>= 1) {
+				if ((l & 1) != 0) edge[fill[l++]++] = op;
+				if ((r & 1) != 0) edge[fill[--r]++] = op;
+			}
+		}
+		int[] query = new int[queries];
+		for (int i = 0, q = 0;i < operations;++ i) if (type[i] == QUERY) query[q++] = i;
+		isUnion = new boolean[queries];
+		getUnion = new int[queries];
+		dfs(1, leaf, start, edge, query, new UnionFindUndo(size));
+	}
+
+	private void dfs(int node, int leaf, int[] start, int[] edge, int[] query, UnionFindUndo uf) { // edgeにはその辺を追加した操作の番号が入っている
+		int united = 0;
+		for (int i = start[node];i < start[node + 1];++ i) if (uf.unite(u[edge[i]], v[edge[i]])) ++ united;
+		if (node >= leaf) {
+			int q = node - leaf;
+			if (q < queries) {
+				isUnion[q] = uf.isUnion(u[query[q]], v[query[q]]);
+				getUnion[q] = uf.getUnion();
+			}
+		} else {
+			dfs(node << 1, leaf, start, edge, query, uf);
+			dfs(node << 1 | 1, leaf, start, edge, query, uf);
+		}
+		while (united-- > 0) uf.undo();
+	}
+}
@@ -0,0 +1,325 @@
+package com._31536000.algo;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import com._31536000.math.algebraic.group.Monoid;
+
+/**
+ * 永続セグメント木です。<br>
+ * １点更新をO(logN)、範囲取得をO(logN)でできるデータ構造であって、更新前の任意の版に対しても範囲取得ができます。<br>
+ * 版は整数で表され、初期状態の版は0です。1回の更新ごとに新しい版が1個作られ、O(logN)個の頂点が追加されます。<br>
+ * 取得や二分探索は木を書き換えないため、更新と同時でなければ複数のスレッドから呼び出すことができます。
+ * @author 31536000
+ *
+ * @param <T> 更新及び範囲取得を行いたいクラス
+ */
+public class PersistentSegmentTree<T> {
+	private final Monoid<T> group;
+	private final int size;
+	private int[] left, right; // 子の頂点番号、葉なら-1
+	private Object[] value;
+	private int nodes;
+	private int[] root; // 各版の根
+	private int versions;
+
+	/**
+	 * 全ての値が単位元であるような永続セグメント木を構築します。
+	 * @param N 要素数
+	 * @param group 演算
+	 */
+	public PersistentSegmentTree(int N, Monoid<T> group) {
+		if (N < 1 || group == null) throw new IllegalArgumentException();
+		this.group = group;
+		size = N;
+		init(N);
+		root[versions++] = build(0, N, null);
+	}
+
+	/**
+	 * datを初期値とする永続セグメント木を構築します。
+	 * @param dat 初期値
+	 * @param group 演算
+	 */
+	public PersistentSegmentTree(T[] dat, Monoid<T> group) {
+		if (dat == null || dat.length < 1 || group == null) throw new IllegalArgumentException();
+		this.group = group;
+		size = dat.length;
+		init(size);
+		root[versions++] = build(0, size, dat);
+	}
+
+	private void init(int N) {
+		int capacity = N << 1;
+		left = new int[capacity];
+		right = new int[capacity];
+		value = new Object[capacity];
+		root = new int[16];
+	}
+
+	private int build(int l, int r, T[] dat) {
+		if (r - l == 1) return newNode(-1, -1, dat == null ? group.identity() : dat[l]);
+		int m = l + r >>> 1;
+		int L = build(l, m, dat), R = build(m, r, dat);
+		return newNode(L, R, group.apply(value(L), value(R)));
+	}
+
+	private int newNode(int l, int r, T dat) {
+		if (nodes == value.length) {
+			int capacity = value.length + (value.length >> 1) + 1;
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+			value = Arrays.copyOf(value, capacity);
+		}
+		left[nodes] = l;
+		right[nodes] = r;
+		value[nodes] = dat;
+		return nodes++;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T value(int node) {
+		return (T)value[node];
+	}
+
+	private void checkVersion(int version) {
+		if (version < 0 || version >= versions) throw new IndexOutOfBoundsException("undefined version: " + version);
+	}
+
+	private int addVersion(int node) {
+		if (versions == root.length) root = Arrays.copyOf(root, root.length << 1);
+		root[versions] = node;
+		return versions++;
+	}
+
+	/**
+	 * 指定した版のindexの値をdatに置換した版を作ります。<br>
+	 * 計算量はO(logN)です。
+	 * @param version 更新元の版
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 * @return 新しい版
+	 */
+	public int set(int version, int index, T dat) {
+		checkVersion(version);
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		return addVersion(set(root[version], 0, size, index, dat));
+	}
+
+	private int set(int node, int nl, int nr, int index, T dat) { // nodeからindexまでの経路を複製した頂点を返す
+		if (nr - nl == 1) return newNode(-1, -1, dat);
+		int m = nl + nr >>> 1;
+		if (index < m) {
+			int L = set(left[node], nl, m, index, dat);
+			return newNode(L, right[node], group.apply(value(L), value(right[node])));
+		}
+		int R = set(right[node], m, nr, index, dat);
+		return newNode(left[node], R, group.apply(value(left[node]), value(R)));
+	}
+
+	/**
+	 * 指定した版のindexの値にdatを演算した版を作ります。<br>
+	 * 計算量はO(logN)です。
+	 * @param version 更新元の版
+	 * @param index 更新する場所
+	 * @param dat 更新するデータ
+	 * @return 新しい版
+	 */
+	public int apply(int version, int index, T dat) {
+		return set(version, index, group.apply(get(version, index), dat));
+	}
+
+	/**
+	 * 最新の版を返します。
+	 * @return 最後に作られた版
+	 */
+	public int latest() {
+		return versions - 1;
+	}
+
+	/**
+	 * 作られた版の個数を返します。
+	 * @return 版の個数
+	 */
+	public int versions() {
+		return versions;
+	}
+
+	/**
+	 * 要素数を返します。
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した版の、指定した場所の値を取得します。<br>
+	 * 計算量はO(logN)です。
+	 * @param version 取得する版
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public T get(int version, int index) {
+		checkVersion(version);
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("out of bounds: " + index);
+		int node = root[version];
+		for (int l = 0, r = size;r - l > 1;) {
+			int m = l + r >>> 1;
+			if (index < m) {
+				node = left[node];
+				r = m;
+			} else {
+				node = right[node];
+				l = m;
+			}
+		}
+		return value(node);
+	}
+
+	/**
+	 * 指定した版の、指定した範囲の合計を取得します。<br>
+	 * 計算量はO(logN)です。
+	 * @param version 取得する版
+	 * @param l 範囲の左区間
+	 * @param r 範囲の右区間
+	 * @return 半開区間[l, r)の合計
+	 */
+	public T get(int version, int l, int r) {
+		checkVersion(version);
+		if (l < 0 || l > r || r > size) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is undefined.");
+		if (l == r) return group.identity();
+		return get(root[version], 0, size, l, r);
+	}
+
+	private T get(int node, int nl, int nr, int l, int r) {
+		if (l <= nl && nr <= r) return value(node);
+		int m = nl + nr >>> 1;
+		if (r <= m) return get(left[node], nl, m, l, r);
+		if (m <= l) return get(right[node], m, nr, l, r);
+		return group.apply(get(left[node], nl, m, l, r), get(right[node], m, nr, l, r));
+	}
+
+	/**
+	 * 指定した版の、指定した範囲を除く区間の合計を取得します。
+	 * @param version 取得する版
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[0, left)+[right, size)の合計
+	 */
+	public T getAvoid(int version, int left, int right) {
+		return group.apply(get(version, 0, left), get(version, right, size));
+	}
+
+	/**
+	 * 指定した版の、指定した範囲で二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param version 探索する版
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public int binarySearch(int version, int left, int right, Predicate<T> f) {
+		checkVersion(version);
+		if (left < 0 || left > size || right < 0 || right > size) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is undefined.");
+		if (left <= right) return Math.min(maxRight(root[version], left, f), right) - 1;
+		return Math.max(minLeft(root[version], left, f), right);
+	}
+
+	private int maxRight(int root, int left, Predicate<T> f) { // fold[left, pos)がfを満たす最大のpos
+		if (left == size) return size;
+		int[] node = new int[33], from = new int[33], to = new int[33]; // [left, size)を覆う頂点、後に積んだものほど左にある
+		int count = 0;
+		for (int v = root, nl = 0, nr = size;;) {
+			if (left == nl) {
+				node[count] = v;
+				from[count] = nl;
+				to[count++] = nr;
+				break;
+			}
+			int m = nl + nr >>> 1;
+			if (left < m) {
+				node[count] = this.right[v];
+				from[count] = m;
+				to[count++] = nr;
+				v = this.left[v];
+				nr = m;
+			} else {
+				v = this.right[v];
+				nl = m;
+			}
+		}
+		T sum = group.identity();
+		while (count > 0) {
+			int v = node[--count], nl = from[count], nr = to[count];
+			T next = group.apply(sum, value(v));
+			if (f.test(next)) {
+				sum = next;
+				continue;
+			}
+			while (nr - nl > 1) { // 今度は降下しながら見ていく
+				int m = nl + nr >>> 1;
+				next = group.apply(sum, value(this.left[v]));
+				if (f.test(next)) {
+					sum = next;
+					v = this.right[v];
+					nl = m;
+				} else {
+					v = this.left[v];
+					nr = m;
+				}
+			}
+			return nl;
+		}
+		return size;
+	}
+
+	private int minLeft(int root, int right, Predicate<T> f) { // fold[pos, right)がfを満たす最小のpos
+		if (right == 0) return 0;
+		int[] node = new int[33], from = new int[33], to = new int[33]; // [0, right)を覆う頂点、後に積んだものほど右にある
+		int count = 0;
+		for (int v = root, nl = 0, nr = size;;) {
+			if (right == nr) {
+				node[count] = v;
+				from[count] = nl;
+				to[count++] = nr;
+				break;
+			}
+			int m = nl + nr >>> 1;
+			if (right > m) {
+				node[count] = this.left[v];
+				from[count] = nl;
+				to[count++] = m;
+				v = this.right[v];
+				nl = m;
+			} else {
+				v = this.left[v];
+				nr = m;
+			}
+		}
+		T sum = group.identity();
+		while (count > 0) {
+			int v = node[--count], nl = from[count], nr = to[count];
+			T next = group.apply(value(v), sum);
+			if (f.test(next)) {
+				sum = next;
+				continue;
+			}
+			while (nr - nl > 1) { // 今度は降下しながら見ていく
+				int m = nl + nr >>> 1;
+				next = group.apply(value(this.right[v]), sum);
+				if (f.test(next)) {
+					sum = next;
+					v = this.left[v];
+					nr = m;
+				} else {
+					v = this.right[v];
+					nl = m;
+				}
+			}
+			return nr;
+		}
+		return 0;
+	}
+}
@@ -54,17 +54,29 @@ public class PotentializedUnionFindTree<T, W> {
 
 	/**
 	 * その頂点がどの頂点を根とする連結成分に属しているかを求めます。<br>
-	 * 計算量はO(logN)です。
+	 * 経路圧縮を行い、各頂点のポテンシャルを根からの差に付け替えます。計算量はO(logN)です。
 	 * @param n 根を求めたい頂点
 	 * @return 根となっている頂点
 	 */
 	public int find(int n) {
-		while(parent[n] >= 0) n = parent[n];
-		return n;
+		int p = parent[n];
+		if (p < 0) return n;
+		int root = find(p);
+		if (p != root) { // potential[p]は根からの差になっている
+			potential[n] = distance.apply(potential(n), potential(p));
+			parent[n] = root;
+		}
+		return root;
+	}
+
+	@SuppressWarnings("unchecked")
+	private W potential(int n) {
+		return (W)potential[n];
 	}
 
 	/**
 	 * 指定した頂点同士をlからrへ繋ぐように連結します。<br>
+	 * この操作により、rのポテンシャルはlのポテンシャルにwを演算した値となります。<br>
 	 * 計算量はO(logN)です。
 	 * @param l 連結したい頂点
 	 * @param r 連結したい頂点
@@ -72,21 +84,19 @@ public class PotentializedUnionFindTree<T, W> {
 	 * @return この関数によって連結されたならtrue、既に連結だったならfalse
 	 */
 	public boolean unite(int l, int r, W w) {
-		if (isEqual(l, r)) return false;
-		if (parent[l] >= parent[r]) { // rの方が大きい
-			parent[r] += parent[l]; // 大きい方へ小さい方をマージする
-			parent[l] = r;
-			if (merge != null) data[r] = merge.apply(data[r], data[l]);
-			@SuppressWarnings("unchecked")
-			W t = (W)potential[l];
-			potential[l] = distance.apply(t, w);
+		int rootL = find(l), rootR = find(r);
+		if (rootL == rootR) return false;
+		w = distance.apply(distance.apply(w, potential(l)), distance.inverse(potential(r))); // rootLからrootRへの差
+		if (parent[rootL] > parent[rootR]) { // rootRの方が大きい
+			parent[rootR] += parent[rootL]; // 大きい方へ小さい方をマージする
+			parent[rootL] = rootR;
+			if (merge != null) data[rootR] = merge.apply(data[rootR], data[rootL]);
+			potential[rootL] = distance.inverse(w);
 		} else {
-			parent[l] += parent[r]; // 大きい方へ小さい方をマージする
-			parent[r] = l;
-			if (merge != null) data[l] = merge.apply(data[l], data[r]);
-			@SuppressWarnings("unchecked")
-			W t = (W)potential[r];
-			potential[r] = distance.apply(t, distance.inverse(w));
+			parent[rootL] += parent[rootR]; // 大きい方へ小さい方をマージする
+			parent[rootR] = rootL;
+			if (merge != null) data[rootL] = merge.apply(data[rootL], data[rootR]);
+			potential[rootR] = w;
 		}
 		return true;
 	}
@@ -120,11 +130,7 @@ public class PotentializedUnionFindTree<T, W> {
 	 */
 	public W getDistance(int l, int r) {
 		if (!isEqual(l, r)) throw new IllegalStateException("lとrは非連結です。");
-		@SuppressWarnings("unchecked")
-		W t = (W)potential[r];
-		@SuppressWarnings("unchecked")
-		W element = (W)potential[l];
-		return distance.apply(t, distance.inverse(element));
+		return distance.apply(potential(r), distance.inverse(potential(l)));
 	}
 
 	/**
@@ -0,0 +1,109 @@
+package com._31536000.algo;
+
+import com._31536000.util.collect.IntRange;
+
+/**
+ * 巻き戻し付きのMo's Algorithmを用いて、クエリ平方分割に対する問題を解くことができます。<br>
+ * このアルゴリズムを実行する時には、RollbackMoを継承したデータ構造に対してcalcを呼ぶことで実行を行います。<br>
+ * RollbackMoを継承するデータ構造は次の操作を行うことができなければなりません。
+ * <ul>
+ * 	<li>{@link #add(int)} i番目の要素を追加します。</li>
+ * 	<li>{@link #snapshot()} 現在の状態を記録します。</li>
+ * 	<li>{@link #rollback()} 最後に記録した状態に戻します。</li>
+ * 	<li>{@link #reset()} 要素を持たない状態に戻します。</li>
+ * 	<li>{@link #get(IntRange range)} 現在の区間における要素を返します。ここで、この区間はrangeに等しいです。</li>
+ * </ul>
+ * {@link Mo}と異なり、要素の削除を行う必要はありません。<br>
+ * addにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQの場合における計算量はO(Q(logQ + g(x)) + Nsqrt(Q)f(x))です。<br>
+ * ただし、rollbackの計算量はその直前のsnapshotから行ったaddの回数に比例し、resetの計算量は高々O(N)であるとします。
+ * @author 31536000
+ *
+ * @param <T> クエリに対する答えの型
+ */
+public interface RollbackMo<T> {
+	/**
+	 * i番目の要素を追加します。<br>
+	 * 要素は現在の区間の左端にも右端にも追加されることがあります。
+	 * @param i 追加する要素のindex
+	 */
+	void add(int i);
+	/**
+	 * 現在の状態を記録します。<br>
+	 * 記録は高々1個だけ保持されていれば十分です。
+	 */
+	void snapshot();
+	/**
+	 * 最後に{@link #snapshot()}で記録した状態に戻します。
+	 */
+	void rollback();
+	/**
+	 * 要素を1個も持たない、初期状態に戻します。
+	 */
+	void reset();
+	/**
+	 * 現在、このデータ構造が保持している値を返します。<br>
+	 * これはrangeで与えられる区間が保持している値に等しいです。
+	 * @param range 現在の区間
+	 * @return rangeで指定された区間が保持している値
+	 */
+	T get(IntRange range);
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを返します。
+	 * @param mo 用いるデータ構造
+	 * @param query 求めたい区間クエリ
+	 * @return 各クエリに対する答え
+ * @complexity addにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQの場合における計算量はO(Q(logQ + g(x)) + Nsqrt(Q)f(x))
+	 */
+	static <T> java.util.List<T> calc(RollbackMo<T> mo, IntRange[] query) {
+		return calc(mo, java.util.Arrays.asList(query));
+	}
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを返します。
+	 * @param mo 用いるデータ構造
+	 * @param query 求めたい区間クエリ
+	 * @return 各クエリに対する答え
+ * @complexity addにかかる計算量がf(x)、getにかかる計算量がg(x)であり、区間長がN、クエリ数がQの場合における計算量はO(Q(logQ + g(x)) + Nsqrt(Q)f(x))
+	 */
+	static <T> java.util.List<T> calc(RollbackMo<T> mo, java.util.List<IntRange> query) {
+		class Query{
+			final int l, r, i;
+			Query(IntRange range, int index) {
+				l = range.getClosedLower();
+				r = range.getOpenUpper();
+				i = index;
+			}
+		}
+		Query[] q = new Query[query.size()];
+		int N = 1;
+		for (int i = 0;i < q.length;++ i) {
+			q[i] = new Query(query.get(i), i);
+			N = Math.max(N, q[i].r);
+		}
+		// 右端を単調に伸ばす必要があるため、左端のブロック毎に右端の昇順で処理する
+		final int B = Math.max(1, (int)(N / Math.sqrt(Math.max(1, q.length))));
+		java.util.Arrays.sort(q, (l, r) -> l.l / B != r.l / B ? Integer.compare(l.l / B, r.l / B) : Integer.compare(l.r, r.r));
+		Object[] ans = new Object[q.length];
+		for (int i = 0;i < q.length;) {
+			int block = q[i].l / B, border = (block + 1) * B, right = border;
+			for (;i < q.length && q[i].l / B == block;++ i) {
+				Query now = q[i];
+				if (now.r <= border) { // 区間がブロック内に収まるので、愚直に求める
+					mo.snapshot();
+					for (int j = now.l;j < now.r;++ j) mo.add(j);
+				} else {
+					while(right < now.r) mo.add(right ++);
+					mo.snapshot();
+					for (int j = border - 1;j >= now.l;-- j) mo.add(j);
+				}
+				ans[now.i] = mo.get(query.get(now.i));
+				mo.rollback();
+			}
+			mo.reset();
+		}
+		return java.util.Arrays.stream(ans).map(i -> {
+			@SuppressWarnings("unchecked")
+			T ret = (T)i;
+			return ret;
+		}).collect(java.util.stream.Collectors.toList());
+	}
+}
@@ -2,10 +2,19 @@ package com._31536000.algo;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import com._31536000.math.algebraic.group.Abelian;
+import com._31536000.math.algebraic.group.DoubleAbelian;
+import com._31536000.math.algebraic.group.DoubleMonoid;
+import com._31536000.math.algebraic.group.IntAbelian;
+import com._31536000.math.algebraic.group.IntMonoid;
+import com._31536000.math.algebraic.group.LongAbelian;
+import com._31536000.math.algebraic.group.LongMonoid;
 import com._31536000.math.algebraic.group.Monoid;
 import com._31536000.util.BinarySearch;
 import com._31536000.util.collect.Array;
@@ -62,6 +71,112 @@ public abstract class SegmentTree<T> extends Array<T> implements BinarySearch<T>
 		return new FenwickTree<>(dat, dat[0]);
 	}
 
+	public static IntSegmentTree create(int N, IntMonoid group) {
+		if (N < 1 || group == null) throw new IllegalArgumentException();
+		return new IntSegmentTree.MonoidSegmentTree(N, group);
+	}
+
+	public static IntSegmentTree create(int[] dat, IntMonoid group) {
+		if (dat == null || dat.length < 1 || group == null) throw new IllegalArgumentException();
+		return new IntSegmentTree.MonoidSegmentTree(dat, group);
+	}
+
+	public static IntSegmentTree create(int N, IntUnaryOperator dat, IntMonoid group) {
+		if (N < 1 || dat == null || group == null) throw new IllegalArgumentException();
+		return new IntSegmentTree.MonoidSegmentTree(N, dat, group);
+	}
+
+	public static IntSegmentTree create(int N, IntAbelian group) {
+		if (N < 1 || group == null) throw new IllegalArgumentException();
+		return new IntSegmentTree.FenwickTree(N, group);
+	}
+
+	public static IntSegmentTree create(int[] dat, IntAbelian group) {
+		if (dat == null || dat.length < 1 || group == null) throw new IllegalArgumentException();
+		return new IntSegmentTree.FenwickTree(dat, group);
+	}
+
+	public static IntSegmentTree create(int N, IntUnaryOperator dat, IntAbelian group) {
+		if (N < 1 || dat == null || group == null) throw new IllegalArgumentException();
+		return new IntSegmentTree.FenwickTree(N, dat, group);
+	}
+
+	public static LongSegmentTree create(int N, LongMonoid group) {
+		if (N < 1 || group == null) throw new IllegalArgumentException();
+		return new LongSegmentTree.MonoidSegmentTree(N, group);
+	}
+
+	public static LongSegmentTree create(long[] dat, LongMonoid group) {
+		if (dat == null || dat.length < 1 || group == null) throw new IllegalArgumentException();
+		return new LongSegmentTree.MonoidSegmentTree(dat, group);
+	}
+
+	public static LongSegmentTree create(int N, IntToLongFunction dat, LongMonoid group) {
+		if (N < 1 || dat == null || group == null) throw new IllegalArgumentException();
+		return new LongSegmentTree.MonoidSegmentTree(N, dat, group);
+	}
+
+	public static LongSegmentTree create(int N, LongAbelian group) {
+		if (N < 1 || group == null) throw new IllegalArgumentException();
+		return new LongSegmentTree.FenwickTree(N, group);
+	}
+
+	public static LongSegmentTree create(long[] dat, LongAbelian group) {
+		if (dat == null || dat.length < 1 || group == null) throw new IllegalArgumentException();
+		return new LongSegmentTree.FenwickTree(dat, group);
+	}
+
+	public static LongSegmentTree create(int N, IntToLongFunction dat, LongAbelian group) {
+		if (N < 1 || dat == null || group == null) throw new IllegalArgumentException();
+		return new LongSegmentTree.FenwickTree(N, dat, group);
+	}
+
+	public static DoubleSegmentTree create(int N, DoubleMonoid group) {
+		if (N < 1 || group == null) throw new IllegalArgumentException();
+		return new DoubleSegmentTree.MonoidSegmentTree(N, group);
+	}
+
+	public static DoubleSegmentTree create(double[] dat, DoubleMonoid group) {
+		if (dat == null || dat.length < 1 || group == null) throw new IllegalArgumentException();
+		return new DoubleSegmentTree.MonoidSegmentTree(dat, group);
+	}
+
+	public static DoubleSegmentTree create(int N, IntToDoubleFunction dat, DoubleMonoid group) {
+		if (N < 1 || dat == null || group == null) throw new IllegalArgumentException();
+		return new DoubleSegmentTree.MonoidSegmentTree(N, dat, group);
+	}
+
+	/**
+	 * doubleでは逆元を用いると誤差が蓄積するため、アーベル群であってもFenwickTreeではなくセグメント木を用います。
+	 * @param N 要素数
+	 * @param group 演算
+	 * @return セグメント木
+	 */
+	public static DoubleSegmentTree create(int N, DoubleAbelian group) {
+		return create(N, (DoubleMonoid)group);
+	}
+
+	/**
+	 * doubleでは逆元を用いると誤差が蓄積するため、アーベル群であってもFenwickTreeではなくセグメント木を用います。
+	 * @param dat 初期値
+	 * @param group 演算
+	 * @return セグメント木
+	 */
+	public static DoubleSegmentTree create(double[] dat, DoubleAbelian group) {
+		return create(dat, (DoubleMonoid)group);
+	}
+
+	/**
+	 * doubleでは逆元を用いると誤差が蓄積するため、アーベル群であってもFenwickTreeではなくセグメント木を用います。
+	 * @param N 要素数
+	 * @param dat 各indexの初期値
+	 * @param group 演算
+	 * @return セグメント木
+	 */
+	public static DoubleSegmentTree create(int N, IntToDoubleFunction dat, DoubleAbelian group) {
+		return create(N, dat, (DoubleMonoid)group);
+	}
+
 	private SegmentTree(int length) {
 		super(length);
 	}
@@ -277,6 +392,38 @@ public abstract class SegmentTree<T> extends Array<T> implements BinarySearch<T>
 			set(index, group.apply(get(index), dat));
 		}
 
+		@Override
+		public void setAll(int[] indices, T[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) localSet(dirty[i] = indices[i] | array.length >> 1, values[i]);
+			recalc(dirty);
+		}
+
+		@Override
+		public void applyAll(int[] indices, T[] values) {
+			if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+			for (int index : indices) if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("out of bounds: " + index);
+			int[] dirty = new int[indices.length];
+			for (int i = 0;i < indices.length;++ i) localSet(dirty[i] = indices[i] | array.length >> 1, group.apply(localGet(dirty[i]), values[i]));
+			recalc(dirty);
+		}
+
+		private void recalc(int[] dirty) { // 葉を書き換えた後、祖先を各段で1回ずつ再計算する
+			Arrays.sort(dirty);
+			for (int length = dirty.length;length > 0 && dirty[0] > 1;) {
+				int next = 0;
+				for (int i = 0;i < length;++ i) {
+					int parent = dirty[i] >> 1;
+					if (next != 0 && dirty[next - 1] == parent) continue;
+					dirty[next++] = parent;
+					localSet(parent, group.apply(localGet(parent << 1), localGet(parent << 1 | 1)));
+				}
+				length = next;
+			}
+		}
+
 		@Override
 		public Object[] get() {
 			Object[] ret = new Object[size];
@@ -448,6 +595,28 @@ public abstract class SegmentTree<T> extends Array<T> implements BinarySearch<T>
 		apply(index, get(index));
 	}
 
+	/**
+	 * 複数の場所の値をまとめて置換します。<br>
+	 * indices[i]の値をvalues[i]に置換することを、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void setAll(int[] indices, T[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) set(indices[i], values[i]);
+	}
+
+	/**
+	 * 複数の場所のデータをまとめて更新します。<br>
+	 * apply(indices[i], values[i])を、iの昇順に行います。
+	 * @param indices 更新する場所
+	 * @param values 更新するデータ
+	 */
+	public void applyAll(int[] indices, T[] values) {
+		if (indices.length != values.length) throw new IllegalArgumentException("length mismatch: " + indices.length + " != " + values.length);
+		for (int i = 0;i < indices.length;++ i) apply(indices[i], values[i]);
+	}
+
 	@Override
 	public T get(int index) {
 		if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("out of bounds: " + index);
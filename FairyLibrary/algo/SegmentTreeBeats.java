@@ -0,0 +1,503 @@
+package com._31536000.algo;
+
+import java.util.function.Predicate;
+
+/**
+ * Segment Tree Beatsです。<br>
+ * long型の列に対して、区間chmin、区間chmax、区間加算、区間代入をならしO(log^2N)、区間の合計・最大値・最小値の取得をO(logN)でできるデータ構造です。<br>
+ * 各頂点は最大値と2番目の最大値、最小値と2番目の最小値を保持し、2番目の値を超えない更新のみをその頂点で処理します。<br>
+ * 値は{@link Long#MIN_VALUE}と{@link Long#MAX_VALUE}を番兵として使うため、これらを取ってはいけません。
+ * @author 31536000
+ */
+public class SegmentTreeBeats implements SegmentTreeInterface<Long, SegmentTreeBeats.Action> {
+	private static final long INF = Long.MAX_VALUE, NINF = Long.MIN_VALUE;
+	private final int size;
+	private final long[] sum, max1, max2, min1, min2, lazy;
+	private final int[] maxc, minc, length;
+	private long fold; // 二分探索中の累積値
+
+	/**
+	 * 区間に対する更新操作です。
+	 * @author 31536000
+	 */
+	public static final class Action {
+		private static final int CHMIN = 0, CHMAX = 1, ADD = 2, ASSIGN = 3;
+		private final int type;
+		private final long value;
+
+		private Action(int type, long value) {
+			this.type = type;
+			this.value = value;
+		}
+
+		/**
+		 * 各値をmin(値, value)に置き換える操作を返します。
+		 * @param value 上限
+		 * @return 操作
+		 */
+		public static Action chmin(long value) {
+			return new Action(CHMIN, value);
+		}
+
+		/**
+		 * 各値をmax(値, value)に置き換える操作を返します。
+		 * @param value 下限
+		 * @return 操作
+		 */
+		public static Action chmax(long value) {
+			return new Action(CHMAX, value);
+		}
+
+		/**
+		 * 各値にvalueを加算する操作を返します。
+		 * @param value 加算する値
+		 * @return 操作
+		 */
+		public static Action add(long value) {
+			return new Action(ADD, value);
+		}
+
+		/**
+		 * 各値をvalueに置き換える操作を返します。
+		 * @param value 代入する値
+		 * @return 操作
+		 */
+		public static Action assign(long value) {
+			return new Action(ASSIGN, value);
+		}
+	}
+
+	/**
+	 * 全ての値が0であるようなSegment Tree Beatsを構築します。
+	 * @param N 要素数
+	 */
+	public SegmentTreeBeats(int N) {
+		this(new long[N]);
+	}
+
+	/**
+	 * datを初期値とするSegment Tree Beatsを構築します。<br>
+	 * 計算量はO(N)です。
+	 * @param dat 初期値
+	 */
+	public SegmentTreeBeats(long[] dat) {
+		if (dat == null || dat.length < 1) throw new IllegalArgumentException();
+		size = dat.length;
+		int capacity = 4 * size;
+		sum = new long[capacity];
+		max1 = new long[capacity];
+		max2 = new long[capacity];
+		min1 = new long[capacity];
+		min2 = new long[capacity];
+		lazy = new long[capacity];
+		maxc = new int[capacity];
+		minc = new int[capacity];
+		length = new int[capacity];
+		build(1, 0, size, dat);
+	}
+
+	private void build(int k, int l, int r, long[] dat) {
+		length[k] = r - l;
+		if (r - l == 1) {
+			sum[k] = max1[k] = min1[k] = dat[l];
+			max2[k] = NINF;
+			min2[k] = INF;
+			maxc[k] = minc[k] = 1;
+			return;
+		}
+		int m = l + r >>> 1;
+		build(k << 1, l, m, dat);
+		build(k << 1 | 1, m, r, dat);
+		merge(k);
+	}
+
+	private void merge(int k) {
+		int L = k << 1, R = k << 1 | 1;
+		sum[k] = sum[L] + sum[R];
+		if (max1[L] == max1[R]) {
+			max1[k] = max1[L];
+			max2[k] = Math.max(max2[L], max2[R]);
+			maxc[k] = maxc[L] + maxc[R];
+		} else if (max1[L] > max1[R]) {
+			max1[k] = max1[L];
+			max2[k] = Math.max(max2[L], max1[R]);
+			maxc[k] = maxc[L];
+		} else {
+			max1[k] = max1[R];
+			max2[k] = Math.max(max1[L], max2[R]);
+			maxc[k] = maxc[R];
+		}
+		if (min1[L] == min1[R]) {
+			min1[k] = min1[L];
+			min2[k] = Math.min(min2[L], min2[R]);
+			minc[k] = minc[L] + minc[R];
+		} else if (min1[L] < min1[R]) {
+			min1[k] = min1[L];
+			min2[k] = Math.min(min2[L], min1[R]);
+			minc[k] = minc[L];
+		} else {
+			min1[k] = min1[R];
+			min2[k] = Math.min(min1[L], min2[R]);
+			minc[k] = minc[R];
+		}
+	}
+
+	private void updateMax(int k, long x) { // 最大値をxに下げる、ただしmax2[k] < x
+		sum[k] += (x - max1[k]) * maxc[k];
+		if (max1[k] == min1[k]) min1[k] = x;
+		else if (max1[k] == min2[k]) min2[k] = x;
+		max1[k] = x;
+	}
+
+	private void updateMin(int k, long x) { // 最小値をxに上げる、ただしx < min2[k]
+		sum[k] += (x - min1[k]) * minc[k];
+		if (min1[k] == max1[k]) max1[k] = x;
+		else if (min1[k] == max2[k]) max2[k] = x;
+		min1[k] = x;
+	}
+
+	private void updateAdd(int k, long x) {
+		sum[k] += x * length[k];
+		max1[k] += x;
+		if (max2[k] != NINF) max2[k] += x;
+		min1[k] += x;
+		if (min2[k] != INF) min2[k] += x;
+		lazy[k] += x;
+	}
+
+	private void push(int k) {
+		int L = k << 1, R = k << 1 | 1;
+		if (lazy[k] != 0) {
+			updateAdd(L, lazy[k]);
+			updateAdd(R, lazy[k]);
+			lazy[k] = 0;
+		}
+		if (max1[k] < max1[L]) updateMax(L, max1[k]);
+		if (max1[k] < max1[R]) updateMax(R, max1[k]);
+		if (min1[k] > min1[L]) updateMin(L, min1[k]);
+		if (min1[k] > min1[R]) updateMin(R, min1[k]);
+	}
+
+	private void chmin(int k, int l, int r, int left, int right, long x) {
+		if (right <= l || r <= left || max1[k] <= x) return;
+		if (left <= l && r <= right && max2[k] < x) {
+			updateMax(k, x);
+			return;
+		}
+		push(k);
+		int m = l + r >>> 1;
+		chmin(k << 1, l, m, left, right, x);
+		chmin(k << 1 | 1, m, r, left, right, x);
+		merge(k);
+	}
+
+	private void chmax(int k, int l, int r, int left, int right, long x) {
+		if (right <= l || r <= left || x <= min1[k]) return;
+		if (left <= l && r <= right && x < min2[k]) {
+			updateMin(k, x);
+			return;
+		}
+		push(k);
+		int m = l + r >>> 1;
+		chmax(k << 1, l, m, left, right, x);
+		chmax(k << 1 | 1, m, r, left, right, x);
+		merge(k);
+	}
+
+	private void add(int k, int l, int r, int left, int right, long x) {
+		if (right <= l || r <= left) return;
+		if (left <= l && r <= right) {
+			updateAdd(k, x);
+			return;
+		}
+		push(k);
+		int m = l + r >>> 1;
+		add(k << 1, l, m, left, right, x);
+		add(k << 1 | 1, m, r, left, right, x);
+		merge(k);
+	}
+
+	private void checkRange(int left, int right) {
+		if (left < 0 || left > right || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+	}
+
+	/**
+	 * 区間[left, right)の各値をmin(値, dat)に置き換えます。<br>
+	 * 計算量はならしO(log^2N)です。
+	 * @param dat 上限
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	public void chmin(long dat, int left, int right) {
+		checkRange(left, right);
+		chmin(1, 0, size, left, right, dat);
+	}
+
+	/**
+	 * 区間[left, right)の各値をmax(値, dat)に置き換えます。<br>
+	 * 計算量はならしO(log^2N)です。
+	 * @param dat 下限
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	public void chmax(long dat, int left, int right) {
+		checkRange(left, right);
+		chmax(1, 0, size, left, right, dat);
+	}
+
+	/**
+	 * 区間[left, right)の各値にdatを加算します。<br>
+	 * 計算量はO(logN)です。
+	 * @param dat 加算する値
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	public void add(long dat, int left, int right) {
+		checkRange(left, right);
+		add(1, 0, size, left, right, dat);
+	}
+
+	/**
+	 * 区間[left, right)の各値をdatに置き換えます。<br>
+	 * 計算量はならしO(log^2N)です。
+	 * @param dat 代入する値
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	public void assign(long dat, int left, int right) {
+		checkRange(left, right);
+		chmin(1, 0, size, left, right, dat);
+		chmax(1, 0, size, left, right, dat);
+	}
+
+	/**
+	 * indexで指定した値に対して更新操作を行います。
+	 * @param dat 更新するデータ
+	 * @param index 更新する場所
+	 */
+	@Override
+	public void update(Action dat, int index) {
+		update(dat, index, index + 1);
+	}
+
+	/**
+	 * 区間[left, right)に対して更新操作を行います。
+	 * @param dat 更新するデータ
+	 * @param left 更新する区間の左閉区間
+	 * @param right 更新する区間の右開区間
+	 */
+	@Override
+	public void update(Action dat, int left, int right) {
+		switch (dat.type) {
+		case Action.CHMIN:
+			chmin(dat.value, left, right);
+			break;
+		case Action.CHMAX:
+			chmax(dat.value, left, right);
+			break;
+		case Action.ADD:
+			add(dat.value, left, right);
+			break;
+		default:
+			assign(dat.value, left, right);
+		}
+	}
+
+	private void toArray(int k, int l, int r, long[] array) {
+		if (r - l == 1) {
+			array[l] = sum[k];
+			return;
+		}
+		push(k);
+		int m = l + r >>> 1;
+		toArray(k << 1, l, m, array);
+		toArray(k << 1 | 1, m, r, array);
+	}
+
+	/**
+	 * 全ての値を取得します。
+	 * @return 現在の値
+	 */
+	public long[] toArrayAsLong() {
+		long[] ret = new long[size];
+		toArray(1, 0, size, ret);
+		return ret;
+	}
+
+	@Override
+	public Object[] get() {
+		long[] array = toArrayAsLong();
+		Object[] ret = new Object[size];
+		for (int i = 0;i < size;++ i) ret[i] = array[i];
+		return ret;
+	}
+
+	/**
+	 * 全ての値を取得します。
+	 * @param array データを格納する配列
+	 * @return 現在の値
+	 */
+	@Override
+	public Long[] get(Long[] array) {
+		long[] dat = toArrayAsLong();
+		if (array.length < size) array = new Long[size];
+		for (int i = 0;i < size;++ i) array[i] = dat[i];
+		return array;
+	}
+
+	@Override
+	public Long get(int index) {
+		return getAsLong(index);
+	}
+
+	/**
+	 * 指定した場所の値を取得します。
+	 * @param index 取得したい場所
+	 * @return その場所の値
+	 */
+	public long getAsLong(int index) {
+		if (index < 0 || index >= size) throw new IllegalArgumentException("out of bounds: " + index);
+		int k = 1;
+		for (int l = 0, r = size;r - l > 1;) {
+			push(k);
+			int m = l + r >>> 1;
+			if (index < m) {
+				k <<= 1;
+				r = m;
+			} else {
+				k = k << 1 | 1;
+				l = m;
+			}
+		}
+		return sum[k];
+	}
+
+	@Override
+	public Long get(int left, int right) {
+		return getSum(left, right);
+	}
+
+	private long getSum(int k, int l, int r, int left, int right) {
+		if (right <= l || r <= left) return 0;
+		if (left <= l && r <= right) return sum[k];
+		push(k);
+		int m = l + r >>> 1;
+		return getSum(k << 1, l, m, left, right) + getSum(k << 1 | 1, m, r, left, right);
+	}
+
+	private long getMax(int k, int l, int r, int left, int right) {
+		if (right <= l || r <= left) return NINF;
+		if (left <= l && r <= right) return max1[k];
+		push(k);
+		int m = l + r >>> 1;
+		return Math.max(getMax(k << 1, l, m, left, right), getMax(k << 1 | 1, m, r, left, right));
+	}
+
+	private long getMin(int k, int l, int r, int left, int right) {
+		if (right <= l || r <= left) return INF;
+		if (left <= l && r <= right) return min1[k];
+		push(k);
+		int m = l + r >>> 1;
+		return Math.min(getMin(k << 1, l, m, left, right), getMin(k << 1 | 1, m, r, left, right));
+	}
+
+	/**
+	 * 指定した範囲の合計を取得します。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の合計
+	 */
+	public long getSum(int left, int right) {
+		checkRange(left, right);
+		return getSum(1, 0, size, left, right);
+	}
+
+	/**
+	 * 指定した範囲の最大値を取得します。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の最大値、区間が空なら{@link Long#MIN_VALUE}
+	 */
+	public long getMax(int left, int right) {
+		checkRange(left, right);
+		return getMax(1, 0, size, left, right);
+	}
+
+	/**
+	 * 指定した範囲の最小値を取得します。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @return 半開区間[left, right)の最小値、区間が空なら{@link Long#MAX_VALUE}
+	 */
+	public long getMin(int left, int right) {
+		checkRange(left, right);
+		return getMin(1, 0, size, left, right);
+	}
+
+	@Override
+	public Long getAvoid(int left, int right) {
+		return getSum(0, left) + getSum(right, size);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 指定した範囲で、合計に対して二分探索を行います。<br>
+	 * 計算量はO(logN)です。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	@Override
+	public int binarySearch(int left, int right, Predicate<Long> f) {
+		if (left < 0 || left > size || right < 0 || right > size) throw new IllegalArgumentException("[" + left + ", " + right + ") is undefined.");
+		fold = 0;
+		int ret;
+		if (left <= right) {
+			ret = maxRight(1, 0, size, left, f);
+			return Math.min(ret < 0 ? size : ret, right) - 1;
+		}
+		ret = minLeft(1, 0, size, left, f);
+		return Math.max(ret < 0 ? 0 : ret, right);
+	}
+
+	private int maxRight(int k, int l, int r, int left, Predicate<Long> f) { // sum[left, pos]がfを満たさない最小のpos、無ければ-1
+		if (r <= left) return -1;
+		if (left <= l) {
+			long next = fold + sum[k];
+			if (f.test(next)) {
+				fold = next;
+				return -1;
+			}
+			if (r - l == 1) return l;
+		}
+		push(k);
+		int m = l + r >>> 1;
+		int ret = maxRight(k << 1, l, m, left, f);
+		return ret >= 0 ? ret : maxRight(k << 1 | 1, m, r, left, f);
+	}
+
+	private int minLeft(int k, int l, int r, int right, Predicate<Long> f) { // sum[pos, right)がfを満たす最小のpos、区間全体で満たすなら-1
+		if (right <= l) return -1;
+		if (r <= right) {
+			long next = sum[k] + fold;
+			if (f.test(next)) {
+				fold = next;
+				return -1;
+			}
+			if (r - l == 1) return r;
+		}
+		push(k);
+		int m = l + r >>> 1;
+		int ret = minLeft(k << 1 | 1, m, r, right, f);
+		return ret >= 0 ? ret : minLeft(k << 1, l, m, right, f);
+	}
+}
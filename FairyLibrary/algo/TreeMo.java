@@ -0,0 +1,157 @@
+package com._31536000.algo;
+
+import com._31536000.graph.IIntWeightedDirectedMultiGraph;
+import com._31536000.graph.IntWeightedDirectedMultiGraph;
+
+/**
+ * Mo's Algorithmを用いて、木のパスに対するクエリ平方分割の問題を解くことができます。<br>
+ * このアルゴリズムを実行する時には、TreeMoを継承したデータ構造に対してcalcを呼ぶことで実行を行います。<br>
+ * TreeMoを継承するデータ構造は次の操作を行うことができなければなりません。
+ * <ul>
+ * 	<li>{@link #add(int)} 頂点vを追加します。</li>
+ * 	<li>{@link #remove(int)} 頂点vを削除します。</li>
+ * 	<li>{@link #get(int, int)} 現在のパスにおける要素を返します。ここで、このパスはuからvへのパスに等しいです。</li>
+ * </ul>
+ * 木のEuler Tourの上で区間に対するMo's Algorithmを行い、区間に奇数回現れる頂点を追加された頂点とします。
+ * LCAは内部で求めるため、パスの端点を与えるだけで構いません。<br>
+ * addとremoveにかかる計算量がf(x)、getにかかる計算量がg(x)であり、頂点数がN、クエリ数がQの場合における計算量はO(NlogN + Q(logN + g(x)) + Nsqrt(Q)f(x))です。
+ * @author 31536000
+ *
+ * @param <T> クエリに対する答えの型
+ */
+public interface TreeMo<T> {
+	/**
+	 * 頂点vを追加します。
+	 * @param v 追加する頂点
+	 */
+	void add(int v);
+	/**
+	 * 頂点vを削除します。
+	 * @param v 削除する頂点
+	 */
+	void remove(int v);
+	/**
+	 * 現在、このデータ構造が保持している値を返します。<br>
+	 * これはuからvへのパス上の頂点(両端を含む)が保持している値に等しいです。
+	 * @param u パスの端点
+	 * @param v パスの端点
+	 * @return uからvへのパスが保持している値
+	 */
+	T get(int u, int v);
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを返します。<br>
+	 * グラフの辺は向きを無視して、無向木の辺として扱います。
+	 * @param mo 用いるデータ構造
+	 * @param graph 木
+	 * @param root 根とする頂点
+	 * @param u 各クエリのパスの端点
+	 * @param v 各クエリのパスの端点
+	 * @return 各クエリに対する答え
+ * @complexity addとremoveにかかる計算量がf(x)、getにかかる計算量がg(x)であり、頂点数がN、クエリ数がQの場合における計算量はO(NlogN + Q(logN + g(x)) + Nsqrt(Q)f(x))
+	 */
+	static <T> java.util.List<T> calc(TreeMo<T> mo, IntWeightedDirectedMultiGraph graph, int root, int[] u, int[] v) {
+		int N = graph.order();
+		int[] degree = new int[N];
+		for (IIntWeightedDirectedMultiGraph.Edge e : graph.getEdges()) {
+			++ degree[e.getSource()];
+			++ degree[e.getTarget()];
+		}
+		int[][] adjacency = new int[N][];
+		for (int i = 0;i < N;++ i) adjacency[i] = new int[degree[i]];
+		for (IIntWeightedDirectedMultiGraph.Edge e : graph.getEdges()) {
+			adjacency[e.getSource()][-- degree[e.getSource()]] = e.getTarget();
+			adjacency[e.getTarget()][-- degree[e.getTarget()]] = e.getSource();
+		}
+		return calc(mo, adjacency, root, u, v);
+	}
+	/**
+	 * 与えられたデータ構造を用いて、クエリに対する答えを返します。
+	 * @param mo 用いるデータ構造
+	 * @param graph 木の隣接リスト、graph[i]は頂点iに隣接する頂点の一覧
+	 * @param root 根とする頂点
+	 * @param u 各クエリのパスの端点
+	 * @param v 各クエリのパスの端点
+	 * @return 各クエリに対する答え
+ * @complexity addとremoveにかかる計算量がf(x)、getにかかる計算量がg(x)であり、頂点数がN、クエリ数がQの場合における計算量はO(NlogN + Q(logN + g(x)) + Nsqrt(Q)f(x))
+	 */
+	static <T> java.util.List<T> calc(TreeMo<T> mo, int[][] graph, int root, int[] u, int[] v) {
+		if (u.length != v.length) throw new IllegalArgumentException("length is different: " + u.length + ", " + v.length);
+		int N = graph.length, log = Math.max(1, 32 - Integer.numberOfLeadingZeros(N));
+		// 非再帰のDFSで、Euler Tour上で頂点が現れる位置とダブリングの表を求める
+		int[] euler = new int[2 * N], in = new int[N], out = new int[N], depth = new int[N], ancestor = new int[log * N]; // ancestor[k * N + i]は頂点iの2^k個上の祖先
+		int[] stack = new int[N], edge = new int[N];
+		java.util.Arrays.fill(in, -1);
+		int time = 0, top = 0;
+		stack[top++] = root;
+		in[root] = time;
+		euler[time++] = root;
+		ancestor[root] = root;
+		while (top > 0) {
+			int now = stack[top - 1];
+			if (edge[now] == graph[now].length) {
+				out[now] = time;
+				euler[time++] = now;
+				-- top;
+				continue;
+			}
+			int next = graph[now][edge[now]++];
+			if (in[next] >= 0) continue; // 親か多重辺
+			in[next] = time;
+			euler[time++] = next;
+			depth[next] = depth[now] + 1;
+			ancestor[next] = now;
+			stack[top++] = next;
+		}
+		if (time != 2 * N) throw new IllegalArgumentException("graph is not connected.");
+		for (int k = 1;k < log;++ k) for (int i = 0;i < N;++ i) ancestor[k * N + i] = ancestor[(k - 1) * N + ancestor[(k - 1) * N + i]];
+		// 各クエリをEuler Tour上の区間[l, r)に変換する、LCAが区間に含まれない場合はlca[i]に記録する
+		int Q = u.length;
+		int[] l = new int[Q], r = new int[Q], lca = new int[Q];
+		for (int i = 0;i < Q;++ i) {
+			int a = u[i], b = v[i];
+			if (in[a] > in[b]) {
+				int swap = a;
+				a = b;
+				b = swap;
+			}
+			int x = depth[a] <= depth[b] ? a : b, y = a ^ b ^ x; // yの方が深い
+			for (int k = log - 1;k >= 0;-- k) if (depth[y] - depth[x] >= 1 << k) y = ancestor[k * N + y];
+			if (x != y) {
+				for (int k = log - 1;k >= 0;-- k) {
+					if (ancestor[k * N + x] != ancestor[k * N + y]) {
+						x = ancestor[k * N + x];
+						y = ancestor[k * N + y];
+					}
+				}
+				x = ancestor[x];
+			}
+			if (x == a) { // aがbの祖先
+				l[i] = in[a];
+				lca[i] = -1;
+			} else {
+				l[i] = out[a];
+				lca[i] = x;
+			}
+			r[i] = in[b] + 1;
+		}
+		int[] order = MoOrder.hilbert(l, r);
+		boolean[] contains = new boolean[N];
+		Object[] ans = new Object[Q];
+		int left = 0, right = 0;
+		for (int i : order) {
+			// 区間の端を動かす度に、その位置の頂点が含まれるかを反転させる
+			while(left > l[i]) if (contains[euler[-- left]] ^= true) mo.add(euler[left]); else mo.remove(euler[left]);
+			while(right < r[i]) if (contains[euler[right]] ^= true) mo.add(euler[right ++]); else mo.remove(euler[right ++]);
+			while(left < l[i]) if (contains[euler[left]] ^= true) mo.add(euler[left ++]); else mo.remove(euler[left ++]);
+			while(right > r[i]) if (contains[euler[-- right]] ^= true) mo.add(euler[right]); else mo.remove(euler[right]);
+			if (lca[i] >= 0) mo.add(lca[i]);
+			ans[i] = mo.get(u[i], v[i]);
+			if (lca[i] >= 0) mo.remove(lca[i]);
+		}
+		return java.util.Arrays.stream(ans).map(i -> {
+			@SuppressWarnings("unchecked")
+			T ret = (T)i;
+			return ret;
+		}).collect(java.util.stream.Collectors.toList());
+	}
+}
@@ -52,6 +52,20 @@ public class UnionFind {
 		return true;
 	}
 
+	/**
+	 * 各iについて、頂点u[i]と頂点v[i]を連結します。<br>
+	 * 計算量はO(Mα(N))です。
+	 * @param u 連結したい頂点
+	 * @param v 連結したい頂点
+	 * @return この関数によって連結された回数
+	 */
+	public int uniteAll(int[] u, int[] v) {
+		if (u.length != v.length) throw new IllegalArgumentException("length is different: " + u.length + ", " + v.length);
+		int before = size;
+		for (int i = 0;i < u.length;++ i) unite(u[i], v[i]);
+		return before - size;
+	}
+
 	/**
 	 * 指定した頂点が根か判定します。<br>
 	 * 計算量はO(1)です。
@@ -83,6 +97,23 @@ public class UnionFind {
 		return -parent[find(n)];
 	}
 
+	/**
+	 * 各頂点が属する連結成分の番号を求めます。<br>
+	 * 連結成分には、その最小の頂点が小さい順に0から番号が振られます。<br>
+	 * 計算量はO(Nα(N))です。
+	 * @return i番目の要素が頂点iの属する連結成分の番号であるような配列
+	 */
+	public int[] componentId() {
+		int[] ret = new int[parent.length];
+		Arrays.fill(ret, -1);
+		for (int i = 0, id = 0;i < ret.length;++ i) {
+			int root = find(i);
+			if (ret[root] < 0) ret[root] = id++;
+			ret[i] = ret[root];
+		}
+		return ret;
+	}
+
 	/**
 	 * 連結成分の個数を求めます。<br>
 	 * 計算量はO(1)です。
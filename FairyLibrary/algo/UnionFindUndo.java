@@ -1,5 +1,6 @@
 package com._31536000.algo;
 
+import java.util.ArrayDeque;
 import java.util.Deque;
 
 public class UnionFindUndo extends UnionFind{
@@ -15,6 +16,7 @@ public class UnionFindUndo extends UnionFind{
 
 	public UnionFindUndo(int size) {
 		super(size);
+		history = new ArrayDeque<>();
 	}
 
 	@Override
@@ -54,6 +56,7 @@ public class UnionFindUndo extends UnionFind{
 
 	/**
 	 * 連結状態を1個分巻き戻します。<br>
+	 * 巻き戻されるのは、最後にtrueを返したuniteです。<br>
 	 * 計算量はO(1)です。
 	 */
 	public void undo() {
@@ -61,5 +64,6 @@ public class UnionFindUndo extends UnionFind{
 		parent[e.index] = e.value;
 		e = history.pollLast();
 		parent[e.index] = e.value;
+		++ size;
 	}
 }
@@ -0,0 +1,109 @@
+package com._31536000.algo.string;
+
+import java.util.function.LongConsumer;
+import com._31536000.util.FastIO;
+
+/**
+ * KMP法を用いて、バイト列の中からパターンの出現を逐次的に探します。<br>
+ * 入力はいくつかの塊に分けて与えることができ、塊の境界をまたぐ出現も検出します。
+ * テキスト全体を保持しないため、{@link FastIO.Input}などから読みながら検索することができます。<br>
+ * 計算量は、パターンの長さをMとして前計算O(M)、入力1バイト当たり償却O(1)です。
+ * @author 31536000
+ *
+ */
+public class KMPMatcher {
+	private final byte[] pattern;
+	private final int[] border; // border[i]は、pattern[0, i]の最長の真の境界の長さ
+	private int state; // 現在一致しているパターンの接頭辞の長さ
+	private long position; // これまでに読んだバイト数
+	private byte[] buffer;
+
+	/**
+	 * パターンを指定して構築します。
+	 * @param pattern パターン、空であってはいけない
+	 */
+	public KMPMatcher(byte[] pattern) {
+		if (pattern.length == 0) throw new IllegalArgumentException("pattern is empty.");
+		this.pattern = pattern.clone();
+		border = StringAlgorithm.prefixFunction(this.pattern);
+	}
+
+	/**
+	 * パターンを指定して構築します。<br>
+	 * パターンはUTF-8でバイト列に変換されます。
+	 * @param pattern パターン、空であってはいけない
+	 */
+	public KMPMatcher(String pattern) {
+		this(pattern.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * これまでに読んだ入力を破棄して、初期状態に戻します。
+	 */
+	public void reset() {
+		state = 0;
+		position = 0;
+	}
+
+	/**
+	 * これまでに読んだバイト数を返します。
+	 * @return 読んだバイト数
+	 */
+	public long position() {
+		return position;
+	}
+
+	/**
+	 * 入力の塊chunk[from, to)を読み、パターンの出現を探します。<br>
+	 * 出現が見つかる度に、入力全体における出現の開始位置をconsumerに渡します。
+	 * @param chunk 入力
+	 * @param from 読む区間の左端(これを含む)
+	 * @param to 読む区間の右端(これを含まない)
+	 * @param consumer 出現の開始位置を受け取る関数
+	 * @return 見つかった出現の個数
+	 */
+	public int match(byte[] chunk, int from, int to, LongConsumer consumer) {
+		if (from < 0 || to > chunk.length || from > to) throw new IndexOutOfBoundsException("from = " + from + ", to = " + to + ", length = " + chunk.length);
+		final byte[] pattern = this.pattern;
+		final int[] border = this.border;
+		final int m = pattern.length;
+		int state = this.state, count = 0;
+		for (int i = from;i < to;++ i) {
+			final byte c = chunk[i];
+			while (state > 0 && pattern[state] != c) state = border[state - 1];
+			if (pattern[state] == c && ++ state == m) {
+				consumer.accept(position + i - from + 1 - m);
+				++ count;
+				state = border[m - 1];
+			}
+		}
+		this.state = state;
+		position += to - from;
+		return count;
+	}
+
+	/**
+	 * 入力の塊chunkを読み、パターンの出現を探します。<br>
+	 * 出現が見つかる度に、入力全体における出現の開始位置をconsumerに渡します。
+	 * @param chunk 入力
+	 * @param consumer 出現の開始位置を受け取る関数
+	 * @return 見つかった出現の個数
+	 */
+	public int match(byte[] chunk, LongConsumer consumer) {
+		return match(chunk, 0, chunk.length, consumer);
+	}
+
+	/**
+	 * 入力を終端まで塊毎に読み、パターンの出現を探します。<br>
+	 * 出現が見つかる度に、入力全体における出現の開始位置をconsumerに渡します。
+	 * @param in 入力
+	 * @param consumer 出現の開始位置を受け取る関数
+	 * @return 見つかった出現の個数
+	 */
+	public long match(FastIO.Input in, LongConsumer consumer) {
+		if (buffer == null) buffer = new byte[1 << 13];
+		long count = 0;
+		for (int read;(read = in.read(buffer, 0, buffer.length)) >= 0;) count += match(buffer, 0, read, consumer);
+		return count;
+	}
+}
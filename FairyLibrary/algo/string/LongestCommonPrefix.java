@@ -0,0 +1,73 @@
+package com._31536000.algo.string;
+
+import java.util.Arrays;
+import com._31536000.algo.IntBlockSparseTable;
+
+/**
+ * 接尾辞配列と高さ配列から、任意の2つの接尾辞の最長共通接頭辞の長さを求めます。<br>
+ * 高さ配列の区間最小値を{@link IntBlockSparseTable}で求めるため、前計算O(N)、取得O(1)です。<br>
+ * 高さ配列は複製せずに参照するため、構築後に変更してはいけません。
+ * @author 31536000
+ * @see SuffixArray
+ */
+public class LongestCommonPrefix {
+	private final int[] rank;
+	private final IntBlockSparseTable table; // 高さ配列の区間最小値、長さが1以下ならnull
+
+	/**
+	 * 接尾辞配列と高さ配列から構築します。
+	 * @param sa 接尾辞配列
+	 * @param lcp 高さ配列、長さはsa.length-1以上であること
+	 */
+	public LongestCommonPrefix(int[] sa, int[] lcp) {
+		int n = sa.length;
+		if (lcp.length < n - 1) throw new IllegalArgumentException("lcp is too short: " + lcp.length + ", " + n);
+		rank = new int[n];
+		for (int i = 0;i < n;++ i) rank[sa[i]] = i;
+		table = n < 2 ? null : new IntBlockSparseTable(lcp.length == n - 1 ? lcp : Arrays.copyOf(lcp, n - 1));
+	}
+
+	/**
+	 * 列の長さを返します。
+	 * @return 列の長さ
+	 */
+	public int length() {
+		return rank.length;
+	}
+
+	/**
+	 * 接尾辞の辞書順での順位を返します。
+	 * @param i 接尾辞の開始位置
+	 * @return 接尾辞iが辞書順で何番目に小さいか
+	 */
+	public int rank(int i) {
+		return rank[i];
+	}
+
+	/**
+	 * i文字目から始まる接尾辞と、j文字目から始まる接尾辞の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(1)です。
+	 * @param i 接尾辞の開始位置
+	 * @param j 接尾辞の開始位置
+	 * @return 最長共通接頭辞の長さ
+	 */
+	public int lcp(int i, int j) {
+		if (i < 0 || i > rank.length || j < 0 || j > rank.length) throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is out of bounds: " + rank.length);
+		if (i == rank.length || j == rank.length) return 0;
+		if (i == j) return rank.length - i;
+		int l = rank[i], r = rank[j];
+		return table.getAsInt(Math.min(l, r), Math.max(l, r));
+	}
+
+	/**
+	 * i文字目から始まる接尾辞と、j文字目から始まる接尾辞を辞書順で比較します。<br>
+	 * 計算量はO(1)です。
+	 * @param i 接尾辞の開始位置
+	 * @param j 接尾辞の開始位置
+	 * @return 接尾辞iの方が小さいなら負、等しいなら0、大きいなら正の値
+	 */
+	public int compare(int i, int j) {
+		if (i == rank.length || j == rank.length) return Integer.compare(rank.length - i, rank.length - j);
+		return Integer.compare(rank[i], rank[j]);
+	}
+}
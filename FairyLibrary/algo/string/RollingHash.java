@@ -1,33 +1,244 @@
 package com._31536000.algo.string;
 
+/**
+ * 法を2^61-1とするローリングハッシュです。<br>
+ * 前計算O(N)の後、部分文字列のハッシュ値をO(1)で、最長共通接頭辞や辞書順比較をO(logN)で求めることができます。<br>
+ * 基数はインスタンス毎に指定することができます。
+ * 異なるインスタンス同士でハッシュ値や最長共通接頭辞を比較する場合、両者の基数が等しい必要があります。
+ * 基数を指定しなかった場合、クラスの初期化時に乱択で定めた共通の基数を用います。<br>
+ * 要素の値は、大小関係を保ったまま正整数へずらしてからハッシュ値を計算します。
+ * これにより、値が0の要素を含んでいても長さの異なる列のハッシュ値は衝突しにくくなります。
+ * @author 31536000
+ *
+ */
 public class RollingHash {
 	private final long[] hash;
 	private final long[] pow;
-	
+	private final long base;
+
 	public static final long MOD = (1L << 61) - 1;
 	private static final long MASK0 = (1L << 30) - 1;
 	private static final long MASK1 = (1L << 31) - 1;
-	private static long base = -1;
-	private RollingHash(final char[] s) {
-		this(s, base == -1 ? base() : base);
-	}
-	private RollingHash(final char[] s, final long base) {
-		RollingHash.base = base;
-		hash = new long[s.length + 1];
-		pow = new long[s.length + 1];
+	private static final long DEFAULT_BASE = base();
+
+	private RollingHash(final int length, final long base) {
+		if (base <= 1 || base >= MOD) throw new IllegalArgumentException("base is out of range: " + base);
+		this.base = base;
+		hash = new long[length + 1];
+		pow = new long[length + 1];
 		pow[0] = 1;
-		for (int i = 0;i < s.length;++ i) {
-			hash[i + 1] = mod(mul(hash[i], base) + s[i]);
-			pow[i + 1] = mul(pow[i], base);
-		}
+		for (int i = 0;i < length;++ i) pow[i + 1] = mul(pow[i], base);
+	}
+
+	/**
+	 * 文字列のローリングハッシュを構築します。
+	 * @param s 文字列
+	 */
+	public RollingHash(final String s) {
+		this(s.toCharArray());
+	}
+
+	/**
+	 * 文字列のローリングハッシュを構築します。
+	 * @param s 文字列
+	 */
+	public RollingHash(final char[] s) {
+		this(s, DEFAULT_BASE);
+	}
+
+	/**
+	 * 指定した基数で、文字列のローリングハッシュを構築します。
+	 * @param s 文字列
+	 * @param base 基数
+	 */
+	public RollingHash(final char[] s, final long base) {
+		this(s.length, base);
+		for (int i = 0;i < s.length;++ i) hash[i + 1] = mod(mul(hash[i], base) + s[i] + 1);
+	}
+
+	/**
+	 * 列のローリングハッシュを構築します。
+	 * @param s 列
+	 */
+	public RollingHash(final byte[] s) {
+		this(s, DEFAULT_BASE);
+	}
+
+	/**
+	 * 指定した基数で、列のローリングハッシュを構築します。
+	 * @param s 列
+	 * @param base 基数
+	 */
+	public RollingHash(final byte[] s, final long base) {
+		this(s.length, base);
+		for (int i = 0;i < s.length;++ i) hash[i + 1] = mod(mul(hash[i], base) + (s[i] - Byte.MIN_VALUE + 1));
+	}
+
+	/**
+	 * 列のローリングハッシュを構築します。
+	 * @param s 列
+	 */
+	public RollingHash(final int[] s) {
+		this(s, DEFAULT_BASE);
+	}
+
+	/**
+	 * 指定した基数で、列のローリングハッシュを構築します。
+	 * @param s 列
+	 * @param base 基数
+	 */
+	public RollingHash(final int[] s, final long base) {
+		this(s.length, base);
+		for (int i = 0;i < s.length;++ i) hash[i + 1] = mod(mul(hash[i], base) + ((long)s[i] - Integer.MIN_VALUE + 1));
+	}
+
+	/**
+	 * 列の長さを返します。
+	 * @return 列の長さ
+	 */
+	public int length() {
+		return hash.length - 1;
+	}
+
+	/**
+	 * このローリングハッシュの基数を返します。
+	 * @return 基数
+	 */
+	public long getBase() {
+		return base;
 	}
-	long hash() {
+
+	/**
+	 * 列全体のハッシュ値を返します。
+	 * @return 列全体のハッシュ値
+	 */
+	public long hash() {
 		return hash[hash.length - 1];
 	}
-	long hash(final int l, final int r) {
+
+	/**
+	 * 区間[l, r)のハッシュ値を返します。<br>
+	 * 計算量はO(1)です。
+	 * @param l 区間の左端(これを含む)
+	 * @param r 区間の右端(これを含まない)
+	 * @return 区間[l, r)のハッシュ値
+	 */
+	public long hash(final int l, final int r) {
+		if (l < 0 || r >= hash.length || l > r) throw new IndexOutOfBoundsException("[" + l + ", " + r + ") is out of bounds: " + length());
 		return mod(hash[r] - mul(hash[l], pow[r - l]) + MOD);
 	}
-	
+
+	/**
+	 * 各iについて、区間[l[i], r[i])のハッシュ値を求めます。
+	 * @param l 各区間の左端(これを含む)
+	 * @param r 各区間の右端(これを含まない)
+	 * @return i番目の要素が区間[l[i], r[i])のハッシュ値であるような配列
+	 */
+	public long[] hash(final int[] l, final int[] r) {
+		final long[] ret = new long[l.length];
+		hash(l, r, ret);
+		return ret;
+	}
+
+	/**
+	 * 各iについて、区間[l[i], r[i])のハッシュ値を求めてresult[i]に書き込みます。
+	 * @param l 各区間の左端(これを含む)
+	 * @param r 各区間の右端(これを含まない)
+	 * @param result ハッシュ値を書き込む配列
+	 */
+	public void hash(final int[] l, final int[] r, final long[] result) {
+		if (l.length != r.length || l.length != result.length) throw new IllegalArgumentException("length is different");
+		for (int i = 0;i < l.length;++ i) {
+			final int left = l[i], right = r[i];
+			if (left < 0 || right >= hash.length || left > right) throw new IndexOutOfBoundsException("[" + left + ", " + right + ") is out of bounds: " + length());
+			result[i] = mod(hash[right] - mul(hash[left], pow[right - left]) + MOD);
+		}
+	}
+
+	private static int lcp(final RollingHash a, final int l1, final int r1, final RollingHash b, final int l2, final int r2) {
+		if (a.base != b.base) throw new IllegalArgumentException("base is different: " + a.base + ", " + b.base);
+		if (l1 < 0 || r1 >= a.hash.length || l1 > r1) throw new IndexOutOfBoundsException("[" + l1 + ", " + r1 + ") is out of bounds: " + a.length());
+		if (l2 < 0 || r2 >= b.hash.length || l2 > r2) throw new IndexOutOfBoundsException("[" + l2 + ", " + r2 + ") is out of bounds: " + b.length());
+		int ok = 0, ng = Math.min(r1 - l1, r2 - l2) + 1;
+		while (ng - ok > 1) {
+			final int mid = ok + ng >>> 1;
+			if (a.hash(l1, l1 + mid) == b.hash(l2, l2 + mid)) ok = mid;
+			else ng = mid;
+		}
+		return ok;
+	}
+
+	private static int compare(final RollingHash a, final int l1, final int r1, final RollingHash b, final int l2, final int r2) {
+		final int lcp = lcp(a, l1, r1, b, l2, r2);
+		if (lcp == r1 - l1 || lcp == r2 - l2) return Integer.compare(r1 - l1, r2 - l2);
+		return Long.compare(a.hash(l1 + lcp, l1 + lcp + 1), b.hash(l2 + lcp, l2 + lcp + 1)); // 1文字のハッシュ値は、その文字をずらした値に等しい
+	}
+
+	/**
+	 * i文字目から始まる接尾辞と、j文字目から始まる接尾辞の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(logN)です。
+	 * @param i 接尾辞の開始位置
+	 * @param j 接尾辞の開始位置
+	 * @return 最長共通接頭辞の長さ
+	 */
+	public int lcp(final int i, final int j) {
+		return lcp(this, i, length(), this, j, length());
+	}
+
+	/**
+	 * このインスタンスのi文字目から始まる接尾辞と、otherのj文字目から始まる接尾辞の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(logN)です。
+	 * @param i このインスタンスにおける接尾辞の開始位置
+	 * @param other 比較するローリングハッシュ
+	 * @param j otherにおける接尾辞の開始位置
+	 * @return 最長共通接頭辞の長さ
+	 * @throws IllegalArgumentException 基数が異なる場合
+	 */
+	public int lcp(final int i, final RollingHash other, final int j) {
+		return lcp(this, i, length(), other, j, other.length());
+	}
+
+	/**
+	 * 区間[l1, r1)と区間[l2, r2)の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(logN)です。
+	 * @param l1 区間の左端(これを含む)
+	 * @param r1 区間の右端(これを含まない)
+	 * @param l2 区間の左端(これを含む)
+	 * @param r2 区間の右端(これを含まない)
+	 * @return 最長共通接頭辞の長さ
+	 */
+	public int lcp(final int l1, final int r1, final int l2, final int r2) {
+		return lcp(this, l1, r1, this, l2, r2);
+	}
+
+	/**
+	 * 区間[l1, r1)と区間[l2, r2)を辞書順で比較します。<br>
+	 * 計算量はO(logN)です。
+	 * @param l1 区間の左端(これを含む)
+	 * @param r1 区間の右端(これを含まない)
+	 * @param l2 区間の左端(これを含む)
+	 * @param r2 区間の右端(これを含まない)
+	 * @return [l1, r1)の方が小さいなら負、等しいなら0、大きいなら正の値
+	 */
+	public int compare(final int l1, final int r1, final int l2, final int r2) {
+		return compare(this, l1, r1, this, l2, r2);
+	}
+
+	/**
+	 * このインスタンスの区間[l1, r1)と、otherの区間[l2, r2)を辞書順で比較します。<br>
+	 * 計算量はO(logN)です。
+	 * @param l1 このインスタンスにおける区間の左端(これを含む)
+	 * @param r1 このインスタンスにおける区間の右端(これを含まない)
+	 * @param other 比較するローリングハッシュ
+	 * @param l2 otherにおける区間の左端(これを含む)
+	 * @param r2 otherにおける区間の右端(これを含まない)
+	 * @return [l1, r1)の方が小さいなら負、等しいなら0、大きいなら正の値
+	 * @throws IllegalArgumentException 基数が異なる場合
+	 */
+	public int compare(final int l1, final int r1, final RollingHash other, final int l2, final int r2) {
+		return compare(this, l1, r1, other, l2, r2);
+	}
+
 	private static long mul(final long a, final long b) {
 		final long au = a >>> 31;
 		final long ad = a & MASK1;
@@ -36,9 +247,9 @@ public class RollingHash {
 		final long mid = ad * bu + au * bd;
 		final long midu = mid >>> 30;
 		final long midd = mid & MASK0;
-		return (au * bu << 1) + midu + (midd << 31) + ad * bd;
+		return mod((au * bu << 1) + midu + (midd << 31) + ad * bd);
 	}
-	
+
 	private static long mod(final long x) {
 		final long xu = x >>> 61;
 		final long xd = x & MOD;
@@ -46,11 +257,21 @@ public class RollingHash {
 		if (res >= MOD) res -= MOD;
 		return res;
 	}
-	
+
+	/**
+	 * 乱択で基数を求めます。
+	 * @return 基数
+	 */
 	public static long base() {
 		return base(new java.util.Random());
 	}
-	 
+
+	/**
+	 * 与えられた乱数生成器を用いて、乱択で基数を求めます。<br>
+	 * 基数は2^61-1の原始根となります。
+	 * @param rnd 乱数生成器
+	 * @return 基数
+	 */
 	public static long base(final java.util.Random rnd) {
 		while(true) {
 			long e = mod(rnd.nextLong());
@@ -0,0 +1,317 @@
+package com._31536000.algo.string;
+
+/**
+ * 文字列に関する線形時間のアルゴリズムを提供します。<br>
+ * 各メソッドはchar[]、byte[]、int[]を受け取り、結果を書き込む配列を渡した場合は新たな領域を確保しません。
+ * @author 31536000
+ *
+ */
+public final class StringAlgorithm {
+
+	private StringAlgorithm() {
+		throw new AssertionError();
+	}
+
+	private static int[] output(int[] result, int length) {
+		if (result == null) return new int[length];
+		if (result.length < length) throw new IllegalArgumentException("result is too short: " + result.length + ", " + length);
+		return result;
+	}
+
+	/**
+	 * Z-algorithmにより、各iについてsとs[i, N)の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return i番目の要素がsとs[i, N)の最長共通接頭辞の長さであるような配列
+	 */
+	public static int[] zAlgorithm(char[] s) {
+		return zAlgorithm(s, null);
+	}
+
+	/**
+	 * Z-algorithmにより、各iについてsとs[i, N)の最長共通接頭辞の長さを求めてresultに書き込みます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さはs.length以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] zAlgorithm(char[] s, int[] result) {
+		int n = s.length;
+		int[] z = output(result, n);
+		if (n == 0) return z;
+		z[0] = 0;
+		for (int i = 1, j = 0;i < n;++ i) { // [j, j+z[j])は、右端が最も右にある既知の一致区間
+			int k = j + z[j] <= i ? 0 : Math.min(j + z[j] - i, z[i - j]);
+			while (i + k < n && s[k] == s[i + k]) ++ k;
+			z[i] = k;
+			if (j + z[j] < i + k) j = i;
+		}
+		z[0] = n;
+		return z;
+	}
+
+	/**
+	 * Z-algorithmにより、各iについてsとs[i, N)の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return i番目の要素がsとs[i, N)の最長共通接頭辞の長さであるような配列
+	 */
+	public static int[] zAlgorithm(byte[] s) {
+		return zAlgorithm(s, null);
+	}
+
+	/**
+	 * Z-algorithmにより、各iについてsとs[i, N)の最長共通接頭辞の長さを求めてresultに書き込みます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さはs.length以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] zAlgorithm(byte[] s, int[] result) {
+		int n = s.length;
+		int[] z = output(result, n);
+		if (n == 0) return z;
+		z[0] = 0;
+		for (int i = 1, j = 0;i < n;++ i) { // [j, j+z[j])は、右端が最も右にある既知の一致区間
+			int k = j + z[j] <= i ? 0 : Math.min(j + z[j] - i, z[i - j]);
+			while (i + k < n && s[k] == s[i + k]) ++ k;
+			z[i] = k;
+			if (j + z[j] < i + k) j = i;
+		}
+		z[0] = n;
+		return z;
+	}
+
+	/**
+	 * Z-algorithmにより、各iについてsとs[i, N)の最長共通接頭辞の長さを求めます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return i番目の要素がsとs[i, N)の最長共通接頭辞の長さであるような配列
+	 */
+	public static int[] zAlgorithm(int[] s) {
+		return zAlgorithm(s, null);
+	}
+
+	/**
+	 * Z-algorithmにより、各iについてsとs[i, N)の最長共通接頭辞の長さを求めてresultに書き込みます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さはs.length以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] zAlgorithm(int[] s, int[] result) {
+		int n = s.length;
+		int[] z = output(result, n);
+		if (n == 0) return z;
+		z[0] = 0;
+		for (int i = 1, j = 0;i < n;++ i) { // [j, j+z[j])は、右端が最も右にある既知の一致区間
+			int k = j + z[j] <= i ? 0 : Math.min(j + z[j] - i, z[i - j]);
+			while (i + k < n && s[k] == s[i + k]) ++ k;
+			z[i] = k;
+			if (j + z[j] < i + k) j = i;
+		}
+		z[0] = n;
+		return z;
+	}
+
+	/**
+	 * KMP法の前処理として、各iについてs[0, i]の真の接頭辞かつ接尾辞であるものの最大の長さを求めます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return i番目の要素がs[0, i]の最長の真の境界の長さであるような配列
+	 */
+	public static int[] prefixFunction(char[] s) {
+		return prefixFunction(s, null);
+	}
+
+	/**
+	 * KMP法の前処理として、各iについてs[0, i]の真の接頭辞かつ接尾辞であるものの最大の長さを求めてresultに書き込みます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さはs.length以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] prefixFunction(char[] s, int[] result) {
+		int n = s.length;
+		int[] pi = output(result, n);
+		if (n == 0) return pi;
+		pi[0] = 0;
+		for (int i = 1;i < n;++ i) {
+			int k = pi[i - 1];
+			while (k > 0 && s[i] != s[k]) k = pi[k - 1];
+			pi[i] = s[i] == s[k] ? k + 1 : k;
+		}
+		return pi;
+	}
+
+	/**
+	 * KMP法の前処理として、各iについてs[0, i]の真の接頭辞かつ接尾辞であるものの最大の長さを求めます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return i番目の要素がs[0, i]の最長の真の境界の長さであるような配列
+	 */
+	public static int[] prefixFunction(byte[] s) {
+		return prefixFunction(s, null);
+	}
+
+	/**
+	 * KMP法の前処理として、各iについてs[0, i]の真の接頭辞かつ接尾辞であるものの最大の長さを求めてresultに書き込みます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さはs.length以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] prefixFunction(byte[] s, int[] result) {
+		int n = s.length;
+		int[] pi = output(result, n);
+		if (n == 0) return pi;
+		pi[0] = 0;
+		for (int i = 1;i < n;++ i) {
+			int k = pi[i - 1];
+			while (k > 0 && s[i] != s[k]) k = pi[k - 1];
+			pi[i] = s[i] == s[k] ? k + 1 : k;
+		}
+		return pi;
+	}
+
+	/**
+	 * KMP法の前処理として、各iについてs[0, i]の真の接頭辞かつ接尾辞であるものの最大の長さを求めます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return i番目の要素がs[0, i]の最長の真の境界の長さであるような配列
+	 */
+	public static int[] prefixFunction(int[] s) {
+		return prefixFunction(s, null);
+	}
+
+	/**
+	 * KMP法の前処理として、各iについてs[0, i]の真の接頭辞かつ接尾辞であるものの最大の長さを求めてresultに書き込みます。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さはs.length以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] prefixFunction(int[] s, int[] result) {
+		int n = s.length;
+		int[] pi = output(result, n);
+		if (n == 0) return pi;
+		pi[0] = 0;
+		for (int i = 1;i < n;++ i) {
+			int k = pi[i - 1];
+			while (k > 0 && s[i] != s[k]) k = pi[k - 1];
+			pi[i] = s[i] == s[k] ? k + 1 : k;
+		}
+		return pi;
+	}
+
+	/**
+	 * Manacherのアルゴリズムにより、各中心について最長の回文の長さを求めます。<br>
+	 * 結果の長さは2N-1で、偶数番目の要素2iは文字iを中心とする、奇数番目の要素2i+1は文字iと文字i+1の間を中心とする最長の回文の長さです。
+	 * 中心がkである回文の開始位置は(k - 長さ + 1) / 2です。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return 各中心について、最長の回文の長さを格納した配列
+	 */
+	public static int[] manacher(char[] s) {
+		return manacher(s, null);
+	}
+
+	/**
+	 * Manacherのアルゴリズムにより、各中心について最長の回文の長さを求めてresultに書き込みます。<br>
+	 * 結果の長さは2N-1で、偶数番目の要素2iは文字iを中心とする、奇数番目の要素2i+1は文字iと文字i+1の間を中心とする最長の回文の長さです。
+	 * 中心がkである回文の開始位置は(k - 長さ + 1) / 2です。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さは2N-1以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] manacher(char[] s, int[] result) {
+		int m = Math.max(0, 2 * s.length - 1); // 文字の間に区切り文字を挟んだ列を、実際には作らずに扱う
+		int[] r = output(result, m);
+		for (int i = 0, j = 0;i < m;) { // r[i]は区切り文字を挟んだ列における回文半径
+			while (i - j >= 0 && i + j < m && (((i - j) & 1) != 0 || s[i - j >> 1] == s[i + j >> 1])) ++ j;
+			r[i] = j;
+			int k = 1;
+			for (;i - k >= 0 && k + r[i - k] < j;++ k) r[i + k] = r[i - k];
+			i += k;
+			j -= k;
+		}
+		for (int i = 0;i < m;i += 2) r[i] = r[i] - 1 | 1; // 半径から、区切り文字を除いた回文の長さに直す
+		for (int i = 1;i < m;i += 2) r[i] &= ~1;
+		return r;
+	}
+
+	/**
+	 * Manacherのアルゴリズムにより、各中心について最長の回文の長さを求めます。<br>
+	 * 結果の長さは2N-1で、偶数番目の要素2iは文字iを中心とする、奇数番目の要素2i+1は文字iと文字i+1の間を中心とする最長の回文の長さです。
+	 * 中心がkである回文の開始位置は(k - 長さ + 1) / 2です。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return 各中心について、最長の回文の長さを格納した配列
+	 */
+	public static int[] manacher(byte[] s) {
+		return manacher(s, null);
+	}
+
+	/**
+	 * Manacherのアルゴリズムにより、各中心について最長の回文の長さを求めてresultに書き込みます。<br>
+	 * 結果の長さは2N-1で、偶数番目の要素2iは文字iを中心とする、奇数番目の要素2i+1は文字iと文字i+1の間を中心とする最長の回文の長さです。
+	 * 中心がkである回文の開始位置は(k - 長さ + 1) / 2です。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さは2N-1以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] manacher(byte[] s, int[] result) {
+		int m = Math.max(0, 2 * s.length - 1); // 文字の間に区切り文字を挟んだ列を、実際には作らずに扱う
+		int[] r = output(result, m);
+		for (int i = 0, j = 0;i < m;) { // r[i]は区切り文字を挟んだ列における回文半径
+			while (i - j >= 0 && i + j < m && (((i - j) & 1) != 0 || s[i - j >> 1] == s[i + j >> 1])) ++ j;
+			r[i] = j;
+			int k = 1;
+			for (;i - k >= 0 && k + r[i - k] < j;++ k) r[i + k] = r[i - k];
+			i += k;
+			j -= k;
+		}
+		for (int i = 0;i < m;i += 2) r[i] = r[i] - 1 | 1; // 半径から、区切り文字を除いた回文の長さに直す
+		for (int i = 1;i < m;i += 2) r[i] &= ~1;
+		return r;
+	}
+
+	/**
+	 * Manacherのアルゴリズムにより、各中心について最長の回文の長さを求めます。<br>
+	 * 結果の長さは2N-1で、偶数番目の要素2iは文字iを中心とする、奇数番目の要素2i+1は文字iと文字i+1の間を中心とする最長の回文の長さです。
+	 * 中心がkである回文の開始位置は(k - 長さ + 1) / 2です。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @return 各中心について、最長の回文の長さを格納した配列
+	 */
+	public static int[] manacher(int[] s) {
+		return manacher(s, null);
+	}
+
+	/**
+	 * Manacherのアルゴリズムにより、各中心について最長の回文の長さを求めてresultに書き込みます。<br>
+	 * 結果の長さは2N-1で、偶数番目の要素2iは文字iを中心とする、奇数番目の要素2i+1は文字iと文字i+1の間を中心とする最長の回文の長さです。
+	 * 中心がkである回文の開始位置は(k - 長さ + 1) / 2です。<br>
+	 * 計算量はO(N)です。
+	 * @param s 列
+	 * @param result 結果を書き込む配列、長さは2N-1以上であること、nullなら新たに確保する
+	 * @return result
+	 */
+	public static int[] manacher(int[] s, int[] result) {
+		int m = Math.max(0, 2 * s.length - 1); // 文字の間に区切り文字を挟んだ列を、実際には作らずに扱う
+		int[] r = output(result, m);
+		for (int i = 0, j = 0;i < m;) { // r[i]は区切り文字を挟んだ列における回文半径
+			while (i - j >= 0 && i + j < m && (((i - j) & 1) != 0 || s[i - j >> 1] == s[i + j >> 1])) ++ j;
+			r[i] = j;
+			int k = 1;
+			for (;i - k >= 0 && k + r[i - k] < j;++ k) r[i + k] = r[i - k];
+			i += k;
+			j -= k;
+		}
+		for (int i = 0;i < m;i += 2) r[i] = r[i] - 1 | 1; // 半径から、区切り文字を除いた回文の長さに直す
+		for (int i = 1;i < m;i += 2) r[i] &= ~1;
+		return r;
+	}
+}
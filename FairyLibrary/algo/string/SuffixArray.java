@@ -0,0 +1,304 @@
+package com._31536000.algo.string;
+
+import java.util.Arrays;
+
+/**
+ * SA-ISを用いて接尾辞配列を、Kasaiのアルゴリズムを用いて高さ配列を求めます。<br>
+ * 接尾辞配列saは、sa[i]が辞書順でi番目に小さい接尾辞の開始位置であるような配列です。
+ * 高さ配列lcpは長さN-1の配列で、lcp[i]は接尾辞sa[i]と接尾辞sa[i+1]の最長共通接頭辞の長さです。<br>
+ * 計算量は、列の長さをN、値の上限をUとしてO(N + U)です。<br>
+ * 計算に用いる作業領域はインスタンスが保持し、以後の計算で再利用します。
+ * このため、同じインスタンスで繰り返し計算する場合、結果を書き込む配列を渡せば新たな領域をほとんど確保しません。
+ * 一方で、同じインスタンスを複数のスレッドから同時に使ってはいけません。
+ * @author 31536000
+ *
+ */
+public class SuffixArray {
+	private static final class Level { // 再帰の各段で用いる作業領域
+		private boolean[] ls = new boolean[0]; // ls[i]は、接尾辞iがS型か
+		private int[] sumL = new int[0], sumS = new int[0], buf = new int[0];
+		private int[] lmsMap = new int[0], lms = new int[0], sortedLms = new int[0], recS = new int[0], recSa = new int[0];
+	}
+
+	private Level[] levels = new Level[0];
+	private int[] text = new int[0]; // char[]やbyte[]をint[]に変換した列
+	private int[] rank = new int[0];
+
+	/**
+	 * 作業領域が空の状態で構築します。
+	 */
+	public SuffixArray() {
+	}
+
+	private static int[] reserve(int[] array, int size) {
+		return array.length >= size ? array : new int[Math.max(size, array.length + (array.length >> 1))];
+	}
+
+	private Level level(int depth) {
+		if (depth == levels.length) {
+			levels = Arrays.copyOf(levels, depth + 1);
+			levels[depth] = new Level();
+		}
+		return levels[depth];
+	}
+
+	private int[] text(int length) {
+		return text = reserve(text, length);
+	}
+
+	/**
+	 * 列の接尾辞配列を求めます。
+	 * @param s 列、各要素は0以上upper以下であること
+	 * @param upper 値の上限
+	 * @return 接尾辞配列
+	 */
+	public int[] suffixArray(int[] s, int upper) {
+		int[] sa = new int[s.length];
+		suffixArray(s, upper, sa);
+		return sa;
+	}
+
+	/**
+	 * 列の接尾辞配列を求めてsaに書き込みます。
+	 * @param s 列、各要素は0以上upper以下であること
+	 * @param upper 値の上限
+	 * @param sa 接尾辞配列を書き込む配列、長さはs.length以上であること
+	 */
+	public void suffixArray(int[] s, int upper, int[] sa) {
+		if (upper < 0) throw new IllegalArgumentException("upper is negative: " + upper);
+		if (sa.length < s.length) throw new IllegalArgumentException("sa is too short: " + sa.length + ", " + s.length);
+		for (int i : s) if (i < 0 || i > upper) throw new IllegalArgumentException("out of range: " + i + ", upper = " + upper);
+		saIs(0, s, s.length, upper, sa);
+	}
+
+	/**
+	 * 文字列の接尾辞配列を求めます。
+	 * @param s 文字列
+	 * @return 接尾辞配列
+	 */
+	public int[] suffixArray(char[] s) {
+		int[] sa = new int[s.length];
+		suffixArray(s, sa);
+		return sa;
+	}
+
+	/**
+	 * 文字列の接尾辞配列を求めてsaに書き込みます。
+	 * @param s 文字列
+	 * @param sa 接尾辞配列を書き込む配列、長さはs.length以上であること
+	 */
+	public void suffixArray(char[] s, int[] sa) {
+		if (sa.length < s.length) throw new IllegalArgumentException("sa is too short: " + sa.length + ", " + s.length);
+		int[] text = text(s.length);
+		int upper = 0;
+		for (int i = 0;i < s.length;++ i) upper = Math.max(upper, text[i] = s[i]);
+		saIs(0, text, s.length, upper, sa);
+	}
+
+	/**
+	 * 列の接尾辞配列を求めます。<br>
+	 * 各要素は符号なし整数として比較します。
+	 * @param s 列
+	 * @return 接尾辞配列
+	 */
+	public int[] suffixArray(byte[] s) {
+		int[] sa = new int[s.length];
+		suffixArray(s, sa);
+		return sa;
+	}
+
+	/**
+	 * 列の接尾辞配列を求めてsaに書き込みます。<br>
+	 * 各要素は符号なし整数として比較します。
+	 * @param s 列
+	 * @param sa 接尾辞配列を書き込む配列、長さはs.length以上であること
+	 */
+	public void suffixArray(byte[] s, int[] sa) {
+		if (sa.length < s.length) throw new IllegalArgumentException("sa is too short: " + sa.length + ", " + s.length);
+		int[] text = text(s.length);
+		for (int i = 0;i < s.length;++ i) text[i] = s[i] & 0xFF;
+		saIs(0, text, s.length, 0xFF, sa);
+	}
+
+	private void saIs(int depth, int[] s, int n, int upper, int[] sa) { // s[0, n)の接尾辞配列をsa[0, n)に書き込む
+		if (n == 0) return;
+		if (n == 1) {
+			sa[0] = 0;
+			return;
+		}
+		if (n == 2) {
+			if (s[0] < s[1]) {
+				sa[0] = 0;
+				sa[1] = 1;
+			} else {
+				sa[0] = 1;
+				sa[1] = 0;
+			}
+			return;
+		}
+		Level lv = level(depth);
+		if (lv.ls.length < n) lv.ls = new boolean[Math.max(n, lv.ls.length + (lv.ls.length >> 1))];
+		boolean[] ls = lv.ls;
+		ls[n - 1] = false;
+		for (int i = n - 2;i >= 0;-- i) ls[i] = s[i] == s[i + 1] ? ls[i + 1] : s[i] < s[i + 1];
+		int[] sumL = lv.sumL = reserve(lv.sumL, upper + 1), sumS = lv.sumS = reserve(lv.sumS, upper + 1);
+		Arrays.fill(sumL, 0, upper + 1, 0);
+		Arrays.fill(sumS, 0, upper + 1, 0);
+		for (int i = 0;i < n;++ i) {
+			if (!ls[i]) ++ sumS[s[i]];
+			else ++ sumL[s[i] + 1];
+		}
+		for (int i = 0;i <= upper;++ i) { // sumL[c]はcで始まるL型の、sumS[c]はcで始まるS型の接尾辞の先頭位置
+			sumS[i] += sumL[i];
+			if (i < upper) sumL[i + 1] += sumS[i];
+		}
+		lv.buf = reserve(lv.buf, upper + 1);
+		int[] lmsMap = lv.lmsMap = reserve(lv.lmsMap, n);
+		int m = 0;
+		for (int i = 0;i < n;++ i) lmsMap[i] = i >= 1 && !ls[i - 1] && ls[i] ? m++ : -1;
+		int[] lms = lv.lms = reserve(lv.lms, m);
+		for (int i = 1, j = 0;i < n;++ i) if (!ls[i - 1] && ls[i]) lms[j++] = i;
+		induce(lv, s, n, upper, sa, lms, m);
+		if (m == 0) return;
+		int[] sortedLms = lv.sortedLms = reserve(lv.sortedLms, m);
+		for (int i = 0, j = 0;i < n;++ i) if (lmsMap[sa[i]] != -1) sortedLms[j++] = sa[i];
+		int[] recS = lv.recS = reserve(lv.recS, m);
+		int recUpper = 0;
+		recS[lmsMap[sortedLms[0]]] = 0;
+		for (int i = 1;i < m;++ i) { // LMS部分文字列に、辞書順で番号を振る
+			int l = sortedLms[i - 1], r = sortedLms[i];
+			int endL = lmsMap[l] + 1 < m ? lms[lmsMap[l] + 1] : n;
+			int endR = lmsMap[r] + 1 < m ? lms[lmsMap[r] + 1] : n;
+			boolean same = true;
+			if (endL - l != endR - r) same = false;
+			else {
+				while (l < endL && s[l] == s[r]) {
+					++ l;
+					++ r;
+				}
+				if (l == n || s[l] != s[r]) same = false;
+			}
+			if (!same) ++ recUpper;
+			recS[lmsMap[sortedLms[i]]] = recUpper;
+		}
+		int[] recSa = lv.recSa = reserve(lv.recSa, m);
+		saIs(depth + 1, recS, m, recUpper, recSa);
+		for (int i = 0;i < m;++ i) sortedLms[i] = lms[recSa[i]];
+		induce(lv, s, n, upper, sa, sortedLms, m);
+	}
+
+	private static void induce(Level lv, int[] s, int n, int upper, int[] sa, int[] lms, int m) { // LMSの順序から、誘導ソートで全体の順序を求める
+		boolean[] ls = lv.ls;
+		int[] buf = lv.buf;
+		Arrays.fill(sa, 0, n, -1);
+		System.arraycopy(lv.sumS, 0, buf, 0, upper + 1);
+		for (int i = 0;i < m;++ i) sa[buf[s[lms[i]]]++] = lms[i];
+		System.arraycopy(lv.sumL, 0, buf, 0, upper + 1);
+		sa[buf[s[n - 1]]++] = n - 1;
+		for (int i = 0;i < n;++ i) {
+			int v = sa[i];
+			if (v >= 1 && !ls[v - 1]) sa[buf[s[v - 1]]++] = v - 1;
+		}
+		System.arraycopy(lv.sumL, 0, buf, 0, upper + 1);
+		for (int i = n - 1;i >= 0;-- i) {
+			int v = sa[i];
+			if (v >= 1 && ls[v - 1]) sa[-- buf[s[v - 1] + 1]] = v - 1; // S型ならs[v-1] < upper
+		}
+	}
+
+	private int[] rank(int[] sa, int n) {
+		int[] rank = this.rank = reserve(this.rank, n);
+		for (int i = 0;i < n;++ i) rank[sa[i]] = i;
+		return rank;
+	}
+
+	/**
+	 * 列の高さ配列を求めます。
+	 * @param s 列
+	 * @param sa 接尾辞配列
+	 * @return 高さ配列
+	 */
+	public int[] lcpArray(int[] s, int[] sa) {
+		int[] lcp = new int[Math.max(0, s.length - 1)];
+		lcpArray(s, sa, lcp);
+		return lcp;
+	}
+
+	/**
+	 * 列の高さ配列を求めてlcpに書き込みます。
+	 * @param s 列
+	 * @param sa 接尾辞配列
+	 * @param lcp 高さ配列を書き込む配列、長さはs.length-1以上であること
+	 */
+	public void lcpArray(int[] s, int[] sa, int[] lcp) {
+		int n = s.length;
+		if (sa.length < n || lcp.length < n - 1) throw new IllegalArgumentException("array is too short.");
+		int[] rank = rank(sa, n);
+		for (int i = 0, h = 0;i < n;++ i) { // 接尾辞iの高さは、接尾辞i-1の高さ-1以上
+			if (h > 0) -- h;
+			if (rank[i] == 0) continue;
+			for (int j = sa[rank[i] - 1];j + h < n && i + h < n && s[j + h] == s[i + h];++ h);
+			lcp[rank[i] - 1] = h;
+		}
+	}
+
+	/**
+	 * 文字列の高さ配列を求めます。
+	 * @param s 文字列
+	 * @param sa 接尾辞配列
+	 * @return 高さ配列
+	 */
+	public int[] lcpArray(char[] s, int[] sa) {
+		int[] lcp = new int[Math.max(0, s.length - 1)];
+		lcpArray(s, sa, lcp);
+		return lcp;
+	}
+
+	/**
+	 * 文字列の高さ配列を求めてlcpに書き込みます。
+	 * @param s 文字列
+	 * @param sa 接尾辞配列
+	 * @param lcp 高さ配列を書き込む配列、長さはs.length-1以上であること
+	 */
+	public void lcpArray(char[] s, int[] sa, int[] lcp) {
+		int n = s.length;
+		if (sa.length < n || lcp.length < n - 1) throw new IllegalArgumentException("array is too short.");
+		int[] rank = rank(sa, n);
+		for (int i = 0, h = 0;i < n;++ i) {
+			if (h > 0) -- h;
+			if (rank[i] == 0) continue;
+			for (int j = sa[rank[i] - 1];j + h < n && i + h < n && s[j + h] == s[i + h];++ h);
+			lcp[rank[i] - 1] = h;
+		}
+	}
+
+	/**
+	 * 列の高さ配列を求めます。
+	 * @param s 列
+	 * @param sa 接尾辞配列
+	 * @return 高さ配列
+	 */
+	public int[] lcpArray(byte[] s, int[] sa) {
+		int[] lcp = new int[Math.max(0, s.length - 1)];
+		lcpArray(s, sa, lcp);
+		return lcp;
+	}
+
+	/**
+	 * 列の高さ配列を求めてlcpに書き込みます。
+	 * @param s 列
+	 * @param sa 接尾辞配列
+	 * @param lcp 高さ配列を書き込む配列、長さはs.length-1以上であること
+	 */
+	public void lcpArray(byte[] s, int[] sa, int[] lcp) {
+		int n = s.length;
+		if (sa.length < n || lcp.length < n - 1) throw new IllegalArgumentException("array is too short.");
+		int[] rank = rank(sa, n);
+		for (int i = 0, h = 0;i < n;++ i) {
+			if (h > 0) -- h;
+			if (rank[i] == 0) continue;
+			for (int j = sa[rank[i] - 1];j + h < n && i + h < n && s[j + h] == s[i + h];++ h);
+			lcp[rank[i] - 1] = h;
+		}
+	}
+}
@@ -1,56 +1,309 @@
 package com._31536000.algo.string;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 
+/**
+ * ダブル配列を用いたTrie木です。<br>
+ * 頂点sから文字cで遷移した先の頂点tは、t = base[s] + code(c)かつcheck[t] = sを満たします。
+ * 遷移先が既に使われている場合は、sの子を全て空いている位置へ移し替えます。
+ * 空いている位置は双方向の循環リストで管理し、先頭から順に探すことで配列を詰めて使います。
+ * 一定回数探しても見つからない場合は、使われている最大の位置より後ろに置きます。<br>
+ * また、登録した単語を全て含むAho-Corasick法による文字列検索を行うことができます。
+ * 失敗遷移は単語の追加後に初めて検索を行う時に構築されます。<br>
+ * 単語の長さの合計をL、文字の種類をKとして、単語の追加は最悪O(LK)、検索はテキスト長をNとしてO(N + マッチ数)です。
+ * @author 31536000
+ *
+ */
 public class Trie {
-	private HashMap<Character, Integer> charMap;
+	/**
+	 * 文字列検索でマッチした単語を受け取る関数型インタフェースです。
+	 * @author 31536000
+	 *
+	 */
+	@FunctionalInterface
+	public interface MatchConsumer {
+		/**
+		 * テキストの区間[begin, end)が、pattern番目に追加された単語とマッチしたことを受け取ります。
+		 * @param pattern マッチした単語の番号
+		 * @param begin マッチした区間の左端(これを含む)
+		 * @param end マッチした区間の右端(これを含まない)
+		 */
+		void accept(int pattern, int begin, int end);
+	}
+
+	private final int[] charMap; // 文字から1-indexedの文字の番号への写像、0なら未登録
 
-	private List<Integer> base, check, failure;
+	private int alphabet; // 文字の種類
+	private int[] base, check, terminal; // 空いている位置iでは、check[i] = -1 - 次の位置、base[i] = -1 - 前の位置
+	private int free = -1; // 空いている位置の循環リストの先頭、無ければ-1
+	private int top = 1; // 使われている最大の位置+1
+	private static final int TRIAL = 256; // 空いている位置を探す回数の上限
+	private int[] failure, output; // 失敗遷移と、失敗遷移を辿って最初に見つかる単語の終端、未構築ならnull
+	private int[] length; // 各単語の長さ
+	private int words;
 
+	/**
+	 * 空のTrie木を作ります。
+	 */
 	public Trie() {
-		charMap = new HashMap<Character, Integer>();
-		base = new ArrayList<Integer>();
-		check = new ArrayList<Integer>();
-		failure = new ArrayList<Integer>();
+		charMap = new int[Character.MAX_VALUE + 1];
+		base = new int[0];
+		check = new int[0];
+		terminal = new int[0];
+		length = new int[16];
+		grow(16);
+		unlink(0);
+		check[0] = 0; // 根
+		base[0] = 0;
+	}
+
+	private void grow(int capacity) {
+		int old = base.length;
+		base = Arrays.copyOf(base, capacity);
+		check = Arrays.copyOf(check, capacity);
+		terminal = Arrays.copyOf(terminal, capacity);
+		for (int i = old;i < capacity;++ i) link(i);
+	}
+
+	private void link(int i) { // 位置iを空いている位置の末尾に加える
+		terminal[i] = -1;
+		if (free < 0) {
+			free = i;
+			check[i] = base[i] = -1 - i;
+			return;
+		}
+		int prev = -1 - base[free];
+		check[prev] = -1 - i;
+		base[i] = -1 - prev;
+		check[i] = -1 - free;
+		base[free] = -1 - i;
+	}
+
+	private void unlink(int i) { // 空いている位置iを使う
+		int next = -1 - check[i], prev = -1 - base[i];
+		if (next == i) free = -1;
+		else {
+			check[prev] = -1 - next;
+			base[next] = -1 - prev;
+			if (free == i) free = next;
+		}
+	}
+
+	private void claim(int i, int parent) { // 位置iを、parentの子として使う
+		if (i >= base.length) grow(Math.max(i + 1, base.length << 1));
+		unlink(i);
+		check[i] = parent;
+		base[i] = 0;
+		terminal[i] = -1;
+		top = Math.max(top, i + 1);
 	}
 
+	private boolean isFree(int i) {
+		return i >= check.length || check[i] < 0;
+	}
+
+	private int findBase(int[] codes, int size) { // codesの全ての文字を置けるbaseを求める、codesは昇順
+		if (free >= 0) {
+			int p = free, trial = 0;
+			do {
+				int b = p - codes[0];
+				if (b >= 0) {
+					boolean ok = true;
+					for (int i = 1;i < size && ok;++ i) ok = isFree(b + codes[i]);
+					if (ok) return b;
+				}
+				p = -1 - check[p];
+			} while (p != free && ++ trial < TRIAL);
+		}
+		return Math.max(0, top - codes[0]); // topより後ろは全て空いている
+	}
+
+	private int code(char c) {
+		if (charMap[c] == 0) charMap[c] = ++ alphabet;
+		return charMap[c];
+	}
+
+	private int transition(int s, int k) { // 頂点sから文字kで遷移した先の頂点、存在しなければ-1
+		int t = base[s] + k;
+		return t < check.length && check[t] == s ? t : -1;
+	}
+
+	private int insert(int s, int k) { // 頂点sから文字kへの遷移を作る
+		int t = transition(s, k);
+		if (t >= 0) return t;
+		t = base[s] + k;
+		if (isFree(t)) {
+			claim(t, s);
+			return t;
+		}
+		// sの子を全て移し替える
+		int[] codes = new int[alphabet];
+		int size = 0;
+		for (int c = 1;c <= alphabet;++ c) if (c == k || transition(s, c) >= 0) codes[size++] = c;
+		int oldBase = base[s], newBase = findBase(codes, size);
+		for (int i = 0;i < size;++ i) {
+			if (codes[i] == k) continue;
+			int from = oldBase + codes[i], to = newBase + codes[i];
+			claim(to, s);
+			base[to] = base[from];
+			terminal[to] = terminal[from];
+			for (int c = 1;c <= alphabet;++ c) { // 孫の親を付け替える
+				int grandchild = transition(from, c);
+				if (grandchild >= 0) check[grandchild] = to;
+			}
+			link(from);
+		}
+		base[s] = newBase;
+		claim(newBase + k, s);
+		return newBase + k;
+	}
+
+	/**
+	 * 単語を追加します。
+	 * @param word 追加する単語
+	 * @return 新たに追加されたならtrue、既に追加されていたならfalse
+	 */
 	public boolean add(String word) {
 		return add(word.toCharArray());
 	}
 
-	private int get(char c) {
-		if (charMap.containsKey(c)) return charMap.get(c);
-		charMap.put(c, charMap.size() + 1);
-		return charMap.size();
+	/**
+	 * 単語を追加します。<br>
+	 * 追加された単語には、0から順に番号が振られます。
+	 * @param word 追加する単語
+	 * @return 新たに追加されたならtrue、既に追加されていたならfalse
+	 */
+	public boolean add(char[] word) {
+		int index = 0;
+		for (char i : word) index = insert(index, code(i));
+		if (terminal[index] >= 0) return false;
+		if (words == length.length) length = Arrays.copyOf(length, words << 1);
+		length[words] = word.length;
+		terminal[index] = words++;
+		failure = output = null;
+		return true;
+	}
+
+	/**
+	 * 単語が追加されているか判定します。
+	 * @param word 判定する単語
+	 * @return 追加されているならtrue
+	 */
+	public boolean find(String word) {
+		return indexOf(word.toCharArray()) >= 0;
 	}
 
-	public boolean add(char[] word) {
-		int index = 0, next;
+	/**
+	 * 単語が追加されているか判定します。
+	 * @param word 判定する単語
+	 * @return 追加されているならtrue
+	 */
+	public boolean find(char[] word) {
+		return indexOf(word) >= 0;
+	}
+
+	/**
+	 * 単語の番号を求めます。
+	 * @param word 求める単語
+	 * @return 単語の番号、追加されていなければ-1
+	 */
+	public int indexOf(char[] word) {
+		int index = 0;
 		for (char i : word) {
-			next = base.get(index) + get(i);
-			if (index == check.get(next)) { // 遷移成功
-				index = next;
-			} else {
-				
-			}
+			if (charMap[i] == 0 || (index = transition(index, charMap[i])) < 0) return -1;
 		}
+		return terminal[index];
 	}
 
-	public boolean find(char[] word) {
-		try {
-			int index = 0, next;
-			for (char i : word) {
-				next = base.get(index) + get(i);
-				if (index == check.get(next)) { // 遷移成功
-					index = next;
-				} else return false;
+	/**
+	 * 追加された単語の個数を返します。
+	 * @return 単語の個数
+	 */
+	public int size() {
+		return words;
+	}
+
+	private void build() { // 幅優先探索で失敗遷移を求める
+		if (failure != null) return;
+		int capacity = base.length;
+		int[] start = new int[capacity + 1], child = new int[capacity], queue = new int[capacity];
+		for (int i = 1;i < capacity;++ i) if (check[i] >= 0) ++ start[check[i] + 1];
+		for (int i = 0;i < capacity;++ i) start[i + 1] += start[i];
+		int[] fill = Arrays.copyOf(start, capacity);
+		for (int i = 1;i < capacity;++ i) if (check[i] >= 0) child[fill[check[i]]++] = i;
+		failure = new int[capacity];
+		output = new int[capacity];
+		Arrays.fill(output, -1);
+		int head = 0, tail = 0;
+		queue[tail++] = 0;
+		while (head < tail) {
+			int u = queue[head++];
+			for (int i = start[u];i < start[u + 1];++ i) {
+				int v = child[i], k = v - base[u], f = 0;
+				if (u != 0) {
+					for (f = failure[u];;f = failure[f]) {
+						int t = transition(f, k);
+						if (t >= 0) {
+							f = t;
+							break;
+						}
+						if (f == 0) break;
+					}
+				}
+				failure[v] = f;
+				output[v] = f != 0 && terminal[f] >= 0 ? f : output[f];
+				queue[tail++] = v;
 			}
-			return base.get(index) <= 0;
-		} catch (IndexOutOfBoundsException e) {
-			return false;
 		}
 	}
 
+	private int next(int s, char c) { // Aho-Corasick法で、頂点sから文字cを読んだ時の遷移先
+		int k = charMap[c];
+		if (k == 0) return 0;
+		for (;;s = failure[s]) {
+			int t = transition(s, k);
+			if (t >= 0) return t;
+			if (s == 0) return 0;
+		}
+	}
+
+	private int report(int s, int end, MatchConsumer consumer) {
+		for (int o = terminal[s] >= 0 ? s : output[s];o > 0;o = output[o]) consumer.accept(terminal[o], end - length[terminal[o]], end);
+		return s;
+	}
+
+	/**
+	 * テキストに含まれる、追加された単語の出現を全て求めます。<br>
+	 * 出現は右端の昇順に、右端が等しい場合は長い単語から順にconsumerに渡されます。空文字列はマッチしません。
+	 * @param text テキスト
+	 * @param consumer マッチした単語を受け取る関数
+	 */
+	public void match(char[] text, MatchConsumer consumer) {
+		match(text, 0, text.length, consumer);
+	}
+
+	/**
+	 * テキストの区間[from, to)に含まれる、追加された単語の出現を全て求めます。<br>
+	 * 出現は右端の昇順に、右端が等しい場合は長い単語から順にconsumerに渡されます。空文字列はマッチしません。
+	 * @param text テキスト
+	 * @param from 区間の左端(これを含む)
+	 * @param to 区間の右端(これを含まない)
+	 * @param consumer マッチした単語を受け取る関数
+	 */
+	public void match(char[] text, int from, int to, MatchConsumer consumer) {
+		if (from < 0 || to > text.length || from > to) throw new IndexOutOfBoundsException("from = " + from + ", to = " + to + ", length = " + text.length);
+		build();
+		for (int i = from, s = 0;i < to;++ i) s = report(next(s, text[i]), i + 1, consumer);
+	}
+
+	/**
+	 * テキストに含まれる、追加された単語の出現を全て求めます。<br>
+	 * 出現は右端の昇順に、右端が等しい場合は長い単語から順にconsumerに渡されます。空文字列はマッチしません。
+	 * @param text テキスト
+	 * @param consumer マッチした単語を受け取る関数
+	 */
+	public void match(CharSequence text, MatchConsumer consumer) {
+		build();
+		for (int i = 0, s = 0, length = text.length();i < length;++ i) s = report(next(s, text.charAt(i)), i + 1, consumer);
+	}
 }
@@ -942,6 +942,17 @@ public final class FastIO implements AutoCloseable {
 			return 0;
 		}
 
+		@Override
+		public int read(final byte[] b, final int off, final int len) {
+			if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+			if (len == 0) return 0;
+			if (!hasNextByte()) return -1;
+			final int copy = Math.min(len, length - read);
+			System.arraycopy(buffer, read, b, off, copy);
+			read += copy;
+			return copy;
+		}
+
 		private boolean hasNextByte() {
 			if (read < length) return true;
 			read = 0;
@@ -0,0 +1,54 @@
+package com._31536000.util;
+
+import java.util.function.Predicate;
+
+/**
+ * 添字がlongの範囲[from, to)であるような列に対する二分探索です。<br>
+ * 返り値の規約は{@link BinarySearch}と同じです。
+ * @author 31536000
+ *
+ * @param <T> 二分探索を行うクラス
+ */
+public interface LongIndexBinarySearch<T> {
+
+	/**
+	 * 添字の下限を返します。
+	 * @return 添字の下限(これを含む)
+	 */
+	public long from();
+
+	/**
+	 * 添字の上限を返します。
+	 * @return 添字の上限(これを含まない)
+	 */
+	public long to();
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param right 範囲の右区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, right)において関数fがtrueを返す最大の値(無ければleft-1)<br>
+	 * ただしleft>rightなら、半開区間[right, left)において関数fがtrueを返す最小の値(無ければleft)
+	 */
+	public long binarySearch(long left, long right, Predicate<T> f);
+
+	/**
+	 * 全区間で二分探索を行います。
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[from, to)において関数fがtrueを返す最大の値(無ければfrom-1)
+	 */
+	public default long binarySearch(Predicate<T> f) {
+		return binarySearch(from(), to(), f);
+	}
+
+	/**
+	 * 指定した範囲で二分探索を行います。
+	 * @param left 範囲の左区間
+	 * @param f 単調性を持つ関数
+	 * @return 半開区間[left, to)において関数fがtrueを返す最大の値(無ければleft-1)
+	 */
+	public default long binarySearch(long left, Predicate<T> f) {
+		return binarySearch(left, to(), f);
+	}
+}